@@ -2,6 +2,7 @@ import algorithms.MergeSort;
 import algorithms.QuickSort;
 import algorithms.DeterministicSelect;
 import algorithms.ClosestPair;
+import metrics.CountingMetrics;
 import metrics.Metrics;
 import util.ArrayUtils;
 import util.Point;
@@ -20,7 +21,7 @@ public class Main {
         System.out.println("Original array: " + Arrays.toString(testArray));
 
         // Test MergeSort
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         MergeSort mergeSorter = new MergeSort(metrics);
         int[] array1 = testArray.clone();
         mergeSorter.sort(array1);
@@ -0,0 +1,123 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over point indices, hashed with primitive open addressing.
+ * Each occupied cell maps its (cx, cy) key to the head of an intrusive
+ * chain of point indices threaded through {@code next}. Clearing bumps a
+ * generation stamp instead of wiping the table, so a rebuild costs time
+ * proportional to the points re-inserted, not to the table size.
+ */
+final class CellGrid {
+    private static final int EMPTY = -1;
+
+    private double cellSize;
+    private long[] cellX;
+    private long[] cellY;
+    private int[] head;
+    private int[] stamp;
+    private int generation;
+    private int mask;
+    private int[] next;
+
+    /**
+     * @param pointCapacity largest point index + 1 that will be inserted before the next {@link #ensureCapacity}
+     */
+    CellGrid(int pointCapacity) {
+        allocate(Math.max(pointCapacity, 2));
+    }
+
+    private void allocate(int pointCapacity) {
+        // Load factor <= 1/2: at most one cell per point
+        int tableSize = Integer.highestOneBit(Math.max(pointCapacity, 2) - 1) << 2;
+        cellX = new long[tableSize];
+        cellY = new long[tableSize];
+        head = new int[tableSize];
+        stamp = new int[tableSize];
+        generation = 1;
+        mask = tableSize - 1;
+        next = new int[pointCapacity];
+    }
+
+    /**
+     * Grows the grid to hold point indices below pointCapacity; growing drops all contents
+     * @return true if the grid was reallocated and must be refilled
+     */
+    boolean ensureCapacity(int pointCapacity) {
+        if (pointCapacity <= next.length) return false;
+        allocate(Math.max(pointCapacity, next.length * 2));
+        return true;
+    }
+
+    /**
+     * Number of array elements backing the grid, for allocation metrics
+     */
+    long footprint() {
+        return 4L * stamp.length + next.length;
+    }
+
+    /**
+     * Empties the grid and sets a new cell side length
+     */
+    void clear(double cellSize) {
+        this.cellSize = cellSize;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    double cellSize() {
+        return cellSize;
+    }
+
+    long cell(double coordinate) {
+        return (long) Math.floor(coordinate / cellSize);
+    }
+
+    void insert(int point, double x, double y) {
+        long cx = cell(x);
+        long cy = cell(y);
+        int slot = find(cx, cy);
+        if (stamp[slot] != generation) {
+            stamp[slot] = generation;
+            cellX[slot] = cx;
+            cellY[slot] = cy;
+            head[slot] = EMPTY;
+        }
+        next[point] = head[slot];
+        head[slot] = point;
+    }
+
+    /**
+     * First point of the chain in cell (cx, cy), or -1 if the cell is empty
+     */
+    int first(long cx, long cy) {
+        int slot = find(cx, cy);
+        return stamp[slot] == generation ? head[slot] : EMPTY;
+    }
+
+    /**
+     * Point after the given one in its cell's chain, or -1 at the end
+     */
+    int next(int point) {
+        return next[point];
+    }
+
+    // Linear probing: the slot holding (cx, cy), or the free slot where it would go
+    private int find(long cx, long cy) {
+        int slot = hash(cx, cy) & mask;
+        while (stamp[slot] == generation && (cellX[slot] != cx || cellY[slot] != cy)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long cx, long cy) {
+        long h = cx * 0x9E3779B97F4A7C15L + cy;
+        h ^= h >>> 32;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29));
+    }
+}
@@ -2,100 +2,491 @@ package algorithms;
 
 import metrics.Metrics;
 import util.Point;
-import java.util.*;
+import util.PointSet;
+
+import java.util.Arrays;
 
 /**
- * Simplified Closest Pair of Points algorithm
+ * Closest Pair of Points in O(n log n) over primitive coordinate arrays.
+ * An index permutation is sorted by x once; the recursion works on ranges
+ * of that permutation and restores y-order by merging on the way back up,
+ * using one preallocated scratch buffer. Distances are compared squared.
+ * Large inputs can instead go to the expected-linear {@link GridClosestPair};
+ * see {@link Engine}.
  */
 public class ClosestPair {
+    /**
+     * Input size from which {@link Engine#AUTO} uses the grid engine. The grid
+     * overtakes divide-and-conquer at roughly 4k points on uniform, clustered
+     * and collinear inputs; below 8k the gain is small and the deterministic
+     * divide-and-conquer is kept.
+     */
+    public static final int GRID_THRESHOLD = 1 << 13;
+
+    private static final int BRUTE_FORCE_CUTOFF = 3;
+    private static final int INSERTION_SORT_CUTOFF = 16;
+
+    /**
+     * Algorithm used to find the pair; all engines honour the same contract
+     */
+    public enum Engine {
+        /** Deterministic O(n log n) divide-and-conquer */
+        DIVIDE_AND_CONQUER,
+        /** Randomized incremental grid hashing, expected O(n) */
+        GRID,
+        /** Grid from {@link #GRID_THRESHOLD} points, divide-and-conquer below */
+        AUTO
+    }
+
     private final Metrics metrics;
+    private final Engine engine;
+    private final GridClosestPair grid;
 
     public ClosestPair(Metrics metrics) {
+        this(metrics, Engine.AUTO);
+    }
+
+    public ClosestPair(Metrics metrics, Engine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
         this.metrics = metrics;
+        this.engine = engine;
+        this.grid = new GridClosestPair(metrics);
     }
 
     /**
-     * Finds the closest pair of points using divide-and-conquer
+     * Finds the closest pair of points with the configured engine.
+     * The points are converted to a {@link PointSet} once.
+     * @return the two closest points, ordered by x then y
      */
     public Point[] findClosestPair(Point[] points) {
         if (points == null || points.length < 2) {
             throw new IllegalArgumentException("At least 2 points required");
         }
 
-        metrics.recordDepth();
+        int[] pair = findClosestPairIndices(PointSet.of(points));
+        Point a = points[pair[0]];
+        Point b = points[pair[1]];
+        return compareByXThenY(a, b) <= 0 ? new Point[]{a, b} : new Point[]{b, a};
+    }
+
+    /**
+     * Finds the closest pair without creating any point objects
+     * @return indices {i, j} of the closest pair with i < j; their distance is {@code points.distance(i, j)}
+     */
+    public int[] findClosestPairIndices(PointSet points) {
+        if (points == null || points.size() < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+
+        int n = points.size();
+        boolean useGrid = engine == Engine.GRID || (engine == Engine.AUTO && n >= GRID_THRESHOLD);
+        if (useGrid) {
+            return grid.findClosestPairIndices(points);
+        }
+
+        int[] order = identity(n);
+        int[] scratch = new int[n];
+        metrics.recordAllocation(2L * n);
+
+        Search search = new Search(metrics, points.xs(), points.ys(), order, scratch);
+        search.sortByX(0, n);
+        search.closest(0, n);
+        return search.first < search.second
+                ? new int[]{search.first, search.second}
+                : new int[]{search.second, search.first};
+    }
+
+    /**
+     * Finds the k closest pairs by divide-and-conquer, pruning the recursion
+     * and strip scans with the k-th best distance found so far
+     * @return flat array {i0, j0, i1, j1, ...} of min(k, n(n-1)/2) pairs by
+     *         increasing distance, with i < j within each pair
+     */
+    public int[] findKClosestPairs(PointSet points, int k) {
+        if (points == null || points.size() < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+
+        int n = points.size();
+        int capacity = (int) Math.min(k, (long) n * (n - 1) / 2);
+        PairHeap heap = new PairHeap(capacity);
+        metrics.recordAllocation(3L * capacity);
+
+        KClosestSearch search = new KClosestSearch(metrics, points.xs(), points.ys(), heap);
+        search.run();
+        return heap.drainSorted();
+    }
+
+    /**
+     * Finds every point's nearest neighbour by divide-and-conquer: after both
+     * halves are solved, only points whose neighbour distance reaches across
+     * the dividing line are checked against the other side
+     * @return nearest[i] = index of a point closest to point i
+     */
+    public int[] allNearestNeighbors(PointSet points) {
+        if (points == null || points.size() < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+
+        NeighborSearch search = new NeighborSearch(metrics, points.xs(), points.ys());
+        search.run();
+        return search.nearest;
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Sequential kernel of one closest-pair search over an index permutation:
+     * coordinates, the permutation, its scratch buffer and the best pair found
+     * so far. Each method touches only order[from, to) and scratch[from, to),
+     * so searches over disjoint ranges can share the arrays.
+     */
+    static class Search {
+        final Metrics metrics;
+        final double[] xs;
+        final double[] ys;
+        final int[] order;
+        final int[] scratch;
+
+        int first;
+        int second;
+        double bestSquared = Double.POSITIVE_INFINITY;
+
+        Search(Metrics metrics, double[] xs, double[] ys, int[] order, int[] scratch) {
+            this.metrics = metrics;
+            this.xs = xs;
+            this.ys = ys;
+            this.order = order;
+            this.scratch = scratch;
+        }
+
+        /**
+         * Position of each point in x-order; once {@link #sortByX} has run,
+         * p lies left of the split at mid iff xRank[p] < mid
+         */
+        int[] xRanks() {
+            int[] xRank = new int[order.length];
+            metrics.recordAllocation(order.length);
+            for (int i = 0; i < order.length; i++) {
+                xRank[order[i]] = i;
+            }
+            return xRank;
+        }
+
+        /**
+         * Updates the best pair with order[from, to) and leaves that range sorted by y
+         */
+        void closest(int from, int to) {
+            metrics.recordDepth(to - from);
+            try {
+                // For small ranges, use brute force
+                if (to - from <= BRUTE_FORCE_CUTOFF) {
+                    bruteForce(from, to);
+                    insertionSort(ys, from, to);
+                    return;
+                }
+
+                int mid = (from + to) >>> 1;
+                double midX = xs[order[mid]];
+
+                closest(from, mid);
+                closest(mid, to);
+
+                merge(ys, from, mid, to);
+                combine(from, mid, to, midX);
+            } finally {
+                metrics.exitDepth();
+            }
+        }
+
+        /**
+         * Checks pairs across the split at mid, with order[from, to) already sorted by y
+         */
+        void combine(int from, int mid, int to, double midX) {
+            strip(from, to, midX);
+        }
+
+        /**
+         * Checks pairs across the dividing line x = midX within order[from, to), which must be sorted by y
+         */
+        void strip(int from, int to, double midX) {
+            // Collect the strip around the dividing line, already in y-order
+            int stripEnd = collectStrip(from, to, midX, bestSquared);
+
+            // Each strip point only needs the few successors within best distance in y
+            for (int i = from; i < stripEnd; i++) {
+                int p = scratch[i];
+                double px = xs[p];
+                double py = ys[p];
+                for (int j = i + 1; j < stripEnd; j++) {
+                    int q = scratch[j];
+                    double dy = ys[q] - py;
+                    if (dy * dy >= bestSquared) break;
+
+                    metrics.recordComparison();
+                    double dx = xs[q] - px;
+                    double distanceSquared = dx * dx + dy * dy;
+                    if (distanceSquared < bestSquared) {
+                        update(p, q, distanceSquared);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Copies the points of order[from, to) closer than the given squared distance to x = midX
+         * into scratch starting at from
+         * @return end of the copied strip in scratch
+         */
+        int collectStrip(int from, int to, double midX, double limitSquared) {
+            int stripEnd = from;
+            for (int i = from; i < to; i++) {
+                double dx = xs[order[i]] - midX;
+                if (dx * dx < limitSquared) {
+                    scratch[stripEnd++] = order[i];
+                }
+            }
+            return stripEnd;
+        }
+
+        /**
+         * Checks every pair of order[from, to)
+         */
+        void bruteForce(int from, int to) {
+            for (int i = from; i < to; i++) {
+                int p = order[i];
+                for (int j = i + 1; j < to; j++) {
+                    int q = order[j];
+                    metrics.recordComparison();
+                    double dx = xs[p] - xs[q];
+                    double dy = ys[p] - ys[q];
+                    double distanceSquared = dx * dx + dy * dy;
+                    if (distanceSquared < bestSquared) {
+                        update(p, q, distanceSquared);
+                    }
+                }
+            }
+        }
 
-        // For small arrays, use brute force
-        if (points.length <= 3) {
-            return bruteForce(points, 0, points.length - 1);
+        void update(int p, int q, double distanceSquared) {
+            first = p;
+            second = q;
+            bestSquared = distanceSquared;
+        }
+
+        /**
+         * Merge sort of order[from, to) by x coordinate
+         */
+        void sortByX(int from, int to) {
+            if (to - from <= INSERTION_SORT_CUTOFF) {
+                insertionSort(xs, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sortByX(from, mid);
+            sortByX(mid, to);
+            merge(xs, from, mid, to);
         }
 
-        // Sort by x coordinate
-        Point[] sortedX = points.clone();
-        Arrays.sort(sortedX);
+        /**
+         * Sorts order[from, to) by the given coordinate
+         */
+        private void insertionSort(double[] key, int from, int to) {
+            for (int i = from + 1; i < to; i++) {
+                int index = order[i];
+                double value = key[index];
+                int j = i - 1;
+                while (j >= from && key[order[j]] > value) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+        }
 
-        // Split into left and right halves
-        int mid = sortedX.length / 2;
-        Point[] left = Arrays.copyOfRange(sortedX, 0, mid);
-        Point[] right = Arrays.copyOfRange(sortedX, mid, sortedX.length);
+        /**
+         * Merges the runs order[from, mid) and order[mid, to), each sorted by key, via scratch
+         */
+        void merge(double[] key, int from, int mid, int to) {
+            // Runs already in order: nothing to merge
+            if (key[order[mid - 1]] <= key[order[mid]]) return;
 
-        metrics.recordAllocation(left.length + right.length);
+            int i = from, j = mid, k = from;
+            while (i < mid && j < to) {
+                scratch[k++] = key[order[i]] <= key[order[j]] ? order[i++] : order[j++];
+            }
+            while (i < mid) scratch[k++] = order[i++];
+            while (j < to) scratch[k++] = order[j++];
+            System.arraycopy(scratch, from, order, from, to - from);
+        }
+    }
 
-        // Recursively find closest in halves
-        Point[] leftClosest = findClosestPair(left);
-        Point[] rightClosest = findClosestPair(right);
+    /**
+     * Split/strip search that keeps the k best pairs in a {@link PairHeap}
+     * instead of a single best pair
+     */
+    private static final class KClosestSearch extends Search {
+        private final PairHeap heap;
+        private int[] xRank;
 
-        // Find minimum distance
-        double leftDist = leftClosest[0].distanceTo(leftClosest[1]);
-        double rightDist = rightClosest[0].distanceTo(rightClosest[1]);
-        double minDist = Math.min(leftDist, rightDist);
-        Point[] closest = leftDist < rightDist ? leftClosest : rightClosest;
+        KClosestSearch(Metrics metrics, double[] xs, double[] ys, PairHeap heap) {
+            super(metrics, xs, ys, identity(xs.length), new int[xs.length]);
+            metrics.recordAllocation(2L * xs.length);
+            this.heap = heap;
+        }
 
-        // Check points near the dividing line
-        double midX = sortedX[mid].x;
-        List<Point> strip = new ArrayList<>();
+        void run() {
+            sortByX(0, order.length);
+            xRank = xRanks();
+            closest(0, order.length);
+        }
 
-        for (Point p : sortedX) {
-            if (Math.abs(p.x - midX) < minDist) {
-                strip.add(p);
+        @Override
+        void bruteForce(int from, int to) {
+            for (int i = from; i < to; i++) {
+                int p = order[i];
+                for (int j = i + 1; j < to; j++) {
+                    offer(p, order[j]);
+                }
             }
         }
 
-        // Sort strip by y-coordinate
-        strip.sort(Point::compareByY);
+        /**
+         * Offers every cross pair within the current k-th distance; same-side
+         * pairs were already offered by the recursive calls
+         */
+        @Override
+        void combine(int from, int mid, int to, double midX) {
+            int stripEnd = collectStrip(from, to, midX, heap.threshold());
 
-        // Check pairs in strip (only need to check 7 neighbors)
-        for (int i = 0; i < strip.size(); i++) {
-            for (int j = i + 1; j < strip.size() && j < i + 8; j++) {
-                metrics.recordComparison();
-                Point p1 = strip.get(i);
-                Point p2 = strip.get(j);
-                double dist = p1.distanceTo(p2);
-                if (dist < minDist) {
-                    minDist = dist;
-                    closest = new Point[]{p1, p2};
+            for (int i = from; i < stripEnd; i++) {
+                int p = scratch[i];
+                boolean left = xRank[p] < mid;
+                double py = ys[p];
+                for (int j = i + 1; j < stripEnd; j++) {
+                    int q = scratch[j];
+                    double dy = ys[q] - py;
+                    if (dy * dy >= heap.threshold()) break;
+                    if ((xRank[q] < mid) != left) {
+                        offer(p, q);
+                    }
                 }
             }
         }
 
-        return closest;
+        private void offer(int p, int q) {
+            metrics.recordComparison();
+            double dx = xs[p] - xs[q];
+            double dy = ys[p] - ys[q];
+            double distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared < heap.threshold()) {
+                heap.offer(distanceSquared, p, q);
+            }
+        }
     }
 
-    private Point[] bruteForce(Point[] points, int left, int right) {
-        Point closest1 = points[left];
-        Point closest2 = points[left + 1];
-        double minDist = closest1.distanceTo(closest2);
-
-        for (int i = left; i <= right; i++) {
-            for (int j = i + 1; j <= right; j++) {
-                metrics.recordComparison();
-                double dist = points[i].distanceTo(points[j]);
-                if (dist < minDist) {
-                    minDist = dist;
-                    closest1 = points[i];
-                    closest2 = points[j];
+    /**
+     * Split/strip search that tracks a nearest neighbour per point
+     */
+    private static final class NeighborSearch extends Search {
+        final int[] nearest;
+        private final double[] nearestSquared;
+        private int[] xRank;
+
+        NeighborSearch(Metrics metrics, double[] xs, double[] ys) {
+            super(metrics, xs, ys, identity(xs.length), new int[xs.length]);
+            int n = xs.length;
+            nearest = new int[n];
+            nearestSquared = new double[n];
+            metrics.recordAllocation(4L * n);
+            Arrays.fill(nearestSquared, Double.POSITIVE_INFINITY);
+        }
+
+        void run() {
+            sortByX(0, order.length);
+            xRank = xRanks();
+            closest(0, order.length);
+        }
+
+        @Override
+        void bruteForce(int from, int to) {
+            for (int i = from; i < to; i++) {
+                int p = order[i];
+                for (int j = i + 1; j < to; j++) {
+                    check(p, order[j]);
+                }
+            }
+        }
+
+        /**
+         * Only points whose neighbour ball crosses x = midX can improve across the split.
+         * The strip is as wide as the widest such ball; each crossing point scans it in
+         * y-order in both directions while dy is below its own, shrinking, neighbour distance.
+         */
+        @Override
+        void combine(int from, int mid, int to, double midX) {
+            double widestSquared = 0;
+            for (int i = from; i < to; i++) {
+                int p = order[i];
+                double dx = xs[p] - midX;
+                if (dx * dx < nearestSquared[p]) {
+                    widestSquared = Math.max(widestSquared, nearestSquared[p]);
+                }
+            }
+            if (widestSquared == 0) return;
+
+            int stripEnd = collectStrip(from, to, midX, widestSquared);
+            for (int i = from; i < stripEnd; i++) {
+                int p = scratch[i];
+                double dx = xs[p] - midX;
+                if (dx * dx >= nearestSquared[p]) continue;
+
+                boolean left = xRank[p] < mid;
+                double py = ys[p];
+                for (int j = i + 1; j < stripEnd; j++) {
+                    int q = scratch[j];
+                    double dy = ys[q] - py;
+                    if (dy * dy >= nearestSquared[p]) break;
+                    if ((xRank[q] < mid) != left) check(p, q);
+                }
+                for (int j = i - 1; j >= from; j--) {
+                    int q = scratch[j];
+                    double dy = py - ys[q];
+                    if (dy * dy >= nearestSquared[p]) break;
+                    if ((xRank[q] < mid) != left) check(p, q);
                 }
             }
         }
-        return new Point[]{closest1, closest2};
+
+        private void check(int p, int q) {
+            metrics.recordComparison();
+            double dx = xs[p] - xs[q];
+            double dy = ys[p] - ys[q];
+            double distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared < nearestSquared[p]) {
+                nearest[p] = q;
+                nearestSquared[p] = distanceSquared;
+            }
+            if (distanceSquared < nearestSquared[q]) {
+                nearest[q] = p;
+                nearestSquared[q] = distanceSquared;
+            }
+        }
+    }
+
+    static int compareByXThenY(Point a, Point b) {
+        int byX = Double.compare(a.x, b.x);
+        return byX != 0 ? byX : Double.compare(a.y, b.y);
     }
-}
\ No newline at end of file
+}
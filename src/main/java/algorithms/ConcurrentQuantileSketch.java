@@ -0,0 +1,103 @@
+package algorithms;
+
+import metrics.Metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link QuantileSketch} fed from many threads without locks.
+ * Each thread updates its own shard, which only that thread writes, and
+ * every {@link #PUBLISH_INTERVAL} updates publishes an immutable copy
+ * through a volatile field. Queries merge the published copies, so they
+ * may miss up to PUBLISH_INTERVAL - 1 recent samples per thread until
+ * that thread calls {@link #flush()}.
+ */
+public class ConcurrentQuantileSketch {
+    public static final int PUBLISH_INTERVAL = 1 << 10;
+
+    private final Metrics metrics;
+    private final int k;
+    private final int exactLimit;
+    private final List<Shard> shards = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Shard> localShard = ThreadLocal.withInitial(this::register);
+
+    public ConcurrentQuantileSketch(Metrics metrics) {
+        this(metrics, QuantileSketch.DEFAULT_K, QuantileSketch.DEFAULT_EXACT_LIMIT);
+    }
+
+    /**
+     * @param metrics updated from every thread, so it must be thread-safe
+     *                ({@link metrics.ConcurrentMetrics} or {@link Metrics#noOp()})
+     * @param k          accuracy of every shard and of merged snapshots
+     * @param exactLimit stream length up to which snapshots stay exact
+     */
+    public ConcurrentQuantileSketch(Metrics metrics, int k, int exactLimit) {
+        if (k < QuantileSketch.MIN_K) {
+            throw new IllegalArgumentException("k must be at least " + QuantileSketch.MIN_K);
+        }
+        if (exactLimit < 0) {
+            throw new IllegalArgumentException("Exact limit cannot be negative");
+        }
+        this.metrics = metrics;
+        this.k = k;
+        this.exactLimit = exactLimit;
+    }
+
+    public void update(int value) {
+        localShard.get().update(value);
+    }
+
+    /**
+     * Publishes the calling thread's pending samples
+     */
+    public void flush() {
+        localShard.get().publish();
+    }
+
+    /**
+     * Merge of the latest published state of every shard
+     */
+    public QuantileSketch snapshot() {
+        QuantileSketch merged = new QuantileSketch(metrics, k, exactLimit);
+        for (Shard shard : shards) {
+            QuantileSketch published = shard.published;
+            if (published != null) {
+                merged.merge(published);
+            }
+        }
+        return merged;
+    }
+
+    public int quantile(double q) {
+        return snapshot().quantile(q);
+    }
+
+    private Shard register() {
+        Shard shard = new Shard(new QuantileSketch(metrics, k, exactLimit));
+        shards.add(shard);
+        return shard;
+    }
+
+    private static final class Shard {
+        private final QuantileSketch sketch;
+        private int pending;
+        volatile QuantileSketch published;
+
+        Shard(QuantileSketch sketch) {
+            this.sketch = sketch;
+        }
+
+        void update(int value) {
+            sketch.update(value);
+            if (++pending == PUBLISH_INTERVAL) {
+                publish();
+            }
+        }
+
+        void publish() {
+            published = sketch.copy();
+            pending = 0;
+        }
+    }
+}
@@ -4,21 +4,74 @@ import metrics.Metrics;
 import util.ArrayUtils;
 import util.PartitionUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
- * Deterministic Select using Median-of-Medians (O(n) worst-case)
+ * k-th smallest element in O(n) worst case, in place and without allocation.
+ * The default {@link Strategy#INTROSELECT} runs randomized quickselect and
+ * switches to Median-of-Medians once partitions stop shrinking the range;
+ * {@link Strategy#FLOYD_RIVEST} does the same with sampled pivots and
+ * {@link Strategy#MEDIAN_OF_MEDIANS} uses the deterministic pivot throughout.
+ * Median-of-Medians gathers the group medians at the front of the current
+ * range and partitions three-way around their exact median.
+ * Every level is still reported through {@link Metrics#recordDepth(int)}
+ * and {@link Metrics#exitDepth()}.
  */
 public class DeterministicSelect {
-    private final Metrics metrics;
     private static final int GROUP_SIZE = 5;
+    private static final int INSERTION_SORT_CUTOFF = 16;
+    // Ranges above this size pick their pivot from a recursively selected sample
+    private static final int SAMPLING_CUTOFF = 600;
+
+    /**
+     * Pivot selection used by {@link #select(int[], int)}
+     */
+    public enum Strategy {
+        /** Median-of-Medians pivot at every level */
+        MEDIAN_OF_MEDIANS,
+        /** Random pivots, falling back to Median-of-Medians when progress stalls */
+        INTROSELECT,
+        /**
+         * Floyd–Rivest: the pivot is selected from a small sample so that it lands just
+         * past rank k, leaving about n + min(k, n - k) comparisons in expectation.
+         * Falls back to Median-of-Medians when progress stalls.
+         */
+        FLOYD_RIVEST
+    }
+
+    private final Metrics metrics;
+    private final Strategy strategy;
 
     public DeterministicSelect(Metrics metrics) {
+        this(metrics, Strategy.INTROSELECT);
+    }
+
+    public DeterministicSelect(Metrics metrics, Strategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
         this.metrics = metrics;
+        this.strategy = strategy;
     }
 
     /**
-     * Finds k-th smallest element in array (0-indexed)
+     * Finds k-th smallest element in array (0-indexed).
+     * The array is reordered so that array[k] holds the result.
      */
     public int select(int[] array, int k) {
+        return select(array, k, strategy);
+    }
+
+    /**
+     * Like {@link #select(int[], int)}, with the strategy chosen for this call only
+     */
+    public int select(int[] array, int k, Strategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
         if (array == null || array.length == 0) {
             throw new IllegalArgumentException("Array cannot be null or empty");
         }
@@ -26,56 +79,313 @@ public class DeterministicSelect {
             throw new IllegalArgumentException("k must be between 0 and " + (array.length - 1));
         }
 
-        metrics.recordDepth();
-        return select(array, 0, array.length - 1, k);
+        int right = array.length - 1;
+        if (strategy == Strategy.MEDIAN_OF_MEDIANS) {
+            return selectMedianOfMedians(array, 0, right, k);
+        }
+        // Each step that fails to halve the range spends one unit of budget
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(array.length));
+        if (strategy == Strategy.FLOYD_RIVEST) {
+            return floydRivest(array, 0, right, k, budget);
+        }
+        return introselect(array, 0, right, k, budget);
     }
 
-    private int select(int[] array, int left, int right, int k) {
-        metrics.recordDepth();
+    /**
+     * Finds the k-th smallest of the elements between the buffer's position and limit,
+     * k counted from the position. The elements are reordered in place, without a heap
+     * copy, so that index position + k holds the result; position and limit are unchanged.
+     * {@link Strategy#FLOYD_RIVEST} runs as {@link Strategy#INTROSELECT} on buffers, whose
+     * last {@link QuickSort#BUFFER_BLOCK} elements are selected in a reused on-heap block.
+     */
+    public int select(IntBuffer buffer, int k) {
+        if (buffer == null || !buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Buffer cannot be null or empty");
+        }
+        if (k < 0 || k >= buffer.remaining()) {
+            throw new IllegalArgumentException("k must be between 0 and " + (buffer.remaining() - 1));
+        }
 
-        // Base case: small array
-        if (right - left + 1 <= GROUP_SIZE) {
-            insertionSort(array, left, right);
-            return array[left + k];
+        IntBuffer keys = buffer.slice();
+        int right = keys.limit() - 1;
+        if (strategy == Strategy.MEDIAN_OF_MEDIANS) {
+            return selectMedianOfMedians(keys, 0, right, k);
         }
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(keys.limit()));
+        int[] block = new int[Math.min(QuickSort.BUFFER_BLOCK, keys.limit())];
+        metrics.recordAllocation(block.length);
+        return introselect(keys, 0, right, k, budget, block);
+    }
 
-        // 1. Divide into groups of 5 and find medians
-        int numGroups = (right - left + 1 + GROUP_SIZE - 1) / GROUP_SIZE;
-        int[] medians = new int[numGroups];
-        metrics.recordAllocation(numGroups);
+    /**
+     * Selects among the remaining bytes read as ints in the buffer's byte order; use
+     * {@link java.nio.ByteOrder#nativeOrder()} for speed
+     */
+    public int select(ByteBuffer buffer, int k) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Buffer cannot be null or empty");
+        }
+        return select(ArrayUtils.intView(buffer), k);
+    }
 
-        for (int i = 0; i < numGroups; i++) {
-            int groupStart = left + i * GROUP_SIZE;
-            int groupEnd = Math.min(groupStart + GROUP_SIZE - 1, right);
-            medians[i] = findMedianOfGroup(array, groupStart, groupEnd);
+    /**
+     * Finds the elements of several ranks at once, e.g. a set of percentiles.
+     * Each partition step is shared by all ranks inside the current segment,
+     * and only segments that still contain requested ranks are refined.
+     * The array is reordered so that array[r] holds the result for every requested r.
+     * @return result[i] = the ranks[i]-th smallest element (0-indexed)
+     */
+    public int[] multiSelect(int[] array, int[] ranks) {
+        if (array == null || array.length == 0) {
+            throw new IllegalArgumentException("Array cannot be null or empty");
+        }
+        if (ranks == null) {
+            throw new IllegalArgumentException("Ranks cannot be null");
+        }
+        for (int rank : ranks) {
+            if (rank < 0 || rank >= array.length) {
+                throw new IllegalArgumentException("Ranks must be between 0 and " + (array.length - 1));
+            }
         }
 
-        // 2. Find median of medians recursively
-        int medianOfMedians = select(medians, 0, medians.length - 1, medians.length / 2);
+        int[] sortedRanks = ranks.clone();
+        int[] result = new int[ranks.length];
+        metrics.recordAllocation(2L * ranks.length);
+        Arrays.sort(sortedRanks);
 
-        // 3. Partition around median of medians
-        int pivotIndex = PartitionUtils.partitionAroundPivot(array, left, right, medianOfMedians, metrics);
-        int pivotRank = pivotIndex - left;
+        if (ranks.length > 0) {
+            int budget = 2 * (32 - Integer.numberOfLeadingZeros(array.length));
+            multiSelect(array, 0, array.length - 1, sortedRanks, 0, ranks.length - 1, budget);
+        }
+        for (int i = 0; i < ranks.length; i++) {
+            result[i] = array[ranks[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Places the elements of ranks[rankFrom..rankTo], all within [left, right], at their sorted positions
+     */
+    private void multiSelect(int[] array, int left, int right, int[] ranks, int rankFrom, int rankTo, int budget) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            if (right - left + 1 <= INSERTION_SORT_CUTOFF) {
+                insertionSort(array, left, right);
+                return;
+            }
+
+            // Random pivot until progress stalls, then the Median-of-Medians pivot
+            long band = budget > 0 && strategy != Strategy.MEDIAN_OF_MEDIANS
+                    ? PartitionUtils.partitionThreeWay(array, left, right, metrics)
+                    : PartitionUtils.partitionThreeWay(array, left, right, medianOfMedians(array, left, right), metrics);
+            int lt = PartitionUtils.bandStart(band);
+            int gt = PartitionUtils.bandEnd(band);
+
+            // Ranks below lt go left, ranks above gt go right, the rest sit in the pivot band
+            int lowEnd = firstRankAtLeast(ranks, rankFrom, rankTo, lt) - 1;
+            int highStart = firstRankAtLeast(ranks, lowEnd + 1, rankTo, gt + 1);
+            int size = right - left + 1;
+            if (lowEnd >= rankFrom) {
+                boolean halved = lt - left <= size / 2;
+                multiSelect(array, left, lt - 1, ranks, rankFrom, lowEnd, halved ? budget : budget - 1);
+            }
+            if (highStart <= rankTo) {
+                boolean halved = right - gt <= size / 2;
+                multiSelect(array, gt + 1, right, ranks, highStart, rankTo, halved ? budget : budget - 1);
+            }
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    /**
+     * Index of the first of ranks[from..to] that is >= value, or to + 1 if none
+     */
+    private static int firstRankAtLeast(int[] ranks, int from, int to, int value) {
+        int lo = from;
+        int hi = to + 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ranks[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Randomized quickselect on array[left..right] for absolute index k
+     */
+    private int introselect(int[] array, int left, int right, int k, int budget) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            if (right - left + 1 <= INSERTION_SORT_CUTOFF) {
+                insertionSort(array, left, right);
+                return array[k];
+            }
+            if (budget == 0) {
+                return selectMedianOfMedians(array, left, right, k);
+            }
+
+            long band = PartitionUtils.partitionThreeWay(array, left, right, metrics);
+            int lt = PartitionUtils.bandStart(band);
+            int gt = PartitionUtils.bandEnd(band);
+            if (k >= lt && k <= gt) {
+                return array[k];
+            }
+
+            int from = k < lt ? left : gt + 1;
+            int to = k < lt ? lt - 1 : right;
+            boolean halved = to - from + 1 <= (right - left + 1) / 2;
+            return introselect(array, from, to, k, halved ? budget : budget - 1);
+        } finally {
+            metrics.exitDepth();
+        }
+    }
 
-        // 4. Recurse into the appropriate partition
-        if (k == pivotRank) {
-            return array[pivotIndex];
-        } else if (k < pivotRank) {
-            // Prefer recursing into smaller side (left)
-            return select(array, left, pivotIndex - 1, k);
+    /**
+     * Floyd–Rivest select on array[left..right] for absolute index k. Large ranges first
+     * select within a sample window around k's expected position, which moves an element
+     * close to rank k into array[k] to serve as the pivot.
+     */
+    private int floydRivest(int[] array, int left, int right, int k, int budget) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            while (right - left + 1 > INSERTION_SORT_CUTOFF) {
+                if (budget == 0) {
+                    return selectMedianOfMedians(array, left, right, k);
+                }
+                int size = right - left + 1;
+                if (size > SAMPLING_CUTOFF) {
+                    // Sample of about n^(2/3), window skewed towards the middle by a few deviations
+                    double n = size;
+                    double z = Math.log(n);
+                    double s = 0.5 * Math.exp(2 * z / 3);
+                    int offset = k - left + 1;
+                    double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Math.signum(offset - n / 2);
+                    int sampleLeft = (int) Math.max(left, k - offset * s / n + sd);
+                    int sampleRight = (int) Math.min(right, k + (n - offset) * s / n + sd);
+                    // Draw the window's contents at random, so ordered or crafted inputs
+                    // cannot bias the sample
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = sampleLeft; i <= sampleRight; i++) {
+                        ArrayUtils.swap(array, i, random.nextInt(left, right + 1));
+                    }
+                    floydRivest(array, sampleLeft, sampleRight, k, budget);
+                }
+
+                int j = partitionAroundK(array, left, right, k);
+                if (j == k) {
+                    return array[k];
+                }
+                int from = j < k ? j + 1 : left;
+                int to = j < k ? right : j - 1;
+                if (to - from + 1 > size / 2) {
+                    budget--;
+                }
+                left = from;
+                right = to;
+            }
+            insertionSort(array, left, right);
+            return array[k];
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    /**
+     * Hoare partition of array[left..right] around the value at array[k], with the
+     * range ends as sentinels
+     * @return final position of the pivot
+     */
+    private int partitionAroundK(int[] array, int left, int right, int k) {
+        int pivot = array[k];
+        ArrayUtils.swap(array, left, k);
+        metrics.recordComparison();
+        if (array[right] > pivot) {
+            ArrayUtils.swap(array, right, left);
+        }
+
+        int i = left;
+        int j = right;
+        while (i < j) {
+            ArrayUtils.swap(array, i, j);
+            i++;
+            j--;
+            while (true) {
+                metrics.recordComparison();
+                if (array[i] >= pivot) break;
+                i++;
+            }
+            while (true) {
+                metrics.recordComparison();
+                if (array[j] <= pivot) break;
+                j--;
+            }
+        }
+
+        // The pivot sits at whichever end holds it; move it to j's final position
+        metrics.recordComparison();
+        if (array[left] == pivot) {
+            ArrayUtils.swap(array, left, j);
         } else {
-            // Right side
-            return select(array, pivotIndex + 1, right, k - pivotRank - 1);
+            j++;
+            ArrayUtils.swap(array, j, right);
+        }
+        return j;
+    }
+
+    /**
+     * Median-of-Medians select on array[left..right] for absolute index k
+     */
+    private int selectMedianOfMedians(int[] array, int left, int right, int k) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            // Base case: small range
+            if (right - left + 1 <= GROUP_SIZE) {
+                insertionSort(array, left, right);
+                return array[k];
+            }
+
+            int pivot = medianOfMedians(array, left, right);
+
+            // Three-way partition around the median of medians
+            long band = PartitionUtils.partitionThreeWay(array, left, right, pivot, metrics);
+            int lt = PartitionUtils.bandStart(band);
+            int gt = PartitionUtils.bandEnd(band);
+
+            // Recurse into the appropriate partition
+            if (k < lt) {
+                return selectMedianOfMedians(array, left, lt - 1, k);
+            } else if (k > gt) {
+                return selectMedianOfMedians(array, gt + 1, right, k);
+            } else {
+                // k falls among the keys equal to the pivot
+                return pivot;
+            }
+        } finally {
+            metrics.exitDepth();
         }
     }
 
     /**
-     * Finds median of a small group using insertion sort
+     * Sorts each group of five in place, swaps its median to the front of the
+     * range and selects the median of that prefix
      */
-    private int findMedianOfGroup(int[] array, int left, int right) {
-        insertionSort(array, left, right);
-        int mid = left + (right - left) / 2;
-        return array[mid];
+    private int medianOfMedians(int[] array, int left, int right) {
+        int numGroups = (right - left + GROUP_SIZE) / GROUP_SIZE;
+        for (int i = 0; i < numGroups; i++) {
+            int groupStart = left + i * GROUP_SIZE;
+            int groupEnd = Math.min(groupStart + GROUP_SIZE - 1, right);
+            insertionSort(array, groupStart, groupEnd);
+            // Position left + i lies in an already processed group
+            ArrayUtils.swap(array, left + i, groupStart + (groupEnd - groupStart) / 2);
+        }
+
+        int mediansEnd = left + numGroups - 1;
+        return selectMedianOfMedians(array, left, mediansEnd, left + (numGroups - 1) / 2);
     }
 
     private void insertionSort(int[] array, int left, int right) {
@@ -94,4 +404,87 @@ public class DeterministicSelect {
             array[j + 1] = key;
         }
     }
-}
\ No newline at end of file
+
+    // Buffer counterparts of the array methods above, over absolute indices
+
+    private int introselect(IntBuffer buffer, int left, int right, int k, int budget, int[] block) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            int length = right - left + 1;
+            if (length <= block.length) {
+                buffer.position(left);
+                buffer.get(block, 0, length);
+                int result = introselect(block, 0, length - 1, k - left, budget);
+                buffer.position(left);
+                buffer.put(block, 0, length);
+                return result;
+            }
+            if (budget == 0) {
+                return selectMedianOfMedians(buffer, left, right, k);
+            }
+
+            long band = PartitionUtils.partitionThreeWay(buffer, left, right, metrics);
+            int lt = PartitionUtils.bandStart(band);
+            int gt = PartitionUtils.bandEnd(band);
+            if (k >= lt && k <= gt) {
+                return buffer.get(k);
+            }
+
+            int from = k < lt ? left : gt + 1;
+            int to = k < lt ? lt - 1 : right;
+            boolean halved = to - from + 1 <= (right - left + 1) / 2;
+            return introselect(buffer, from, to, k, halved ? budget : budget - 1, block);
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    private int selectMedianOfMedians(IntBuffer buffer, int left, int right, int k) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            if (right - left + 1 <= GROUP_SIZE) {
+                insertionSort(buffer, left, right);
+                return buffer.get(k);
+            }
+
+            int numGroups = (right - left + GROUP_SIZE) / GROUP_SIZE;
+            for (int i = 0; i < numGroups; i++) {
+                int groupStart = left + i * GROUP_SIZE;
+                int groupEnd = Math.min(groupStart + GROUP_SIZE - 1, right);
+                insertionSort(buffer, groupStart, groupEnd);
+                ArrayUtils.swap(buffer, left + i, groupStart + (groupEnd - groupStart) / 2);
+            }
+            int pivot = selectMedianOfMedians(buffer, left, left + numGroups - 1, left + (numGroups - 1) / 2);
+
+            long band = PartitionUtils.partitionThreeWay(buffer, left, right, pivot, metrics);
+            int lt = PartitionUtils.bandStart(band);
+            int gt = PartitionUtils.bandEnd(band);
+            if (k < lt) {
+                return selectMedianOfMedians(buffer, left, lt - 1, k);
+            } else if (k > gt) {
+                return selectMedianOfMedians(buffer, gt + 1, right, k);
+            }
+            return pivot;
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    private void insertionSort(IntBuffer buffer, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            int key = buffer.get(i);
+            int j = i - 1;
+            while (j >= left) {
+                metrics.recordComparison();
+                int value = buffer.get(j);
+                if (value > key) {
+                    buffer.put(j + 1, value);
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            buffer.put(j + 1, key);
+        }
+    }
+}
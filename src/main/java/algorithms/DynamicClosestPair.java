@@ -0,0 +1,227 @@
+package algorithms;
+
+import metrics.Metrics;
+import util.PointSet;
+
+import java.util.Arrays;
+
+/**
+ * Closest pair maintained under point insertions.
+ * Inserted points live in a {@link CellGrid} whose cell side was the
+ * closest distance δ at the last rebuild; a new point is checked against
+ * the 3x3 cells around it. The grid is rebuilt only once δ falls below
+ * half the cell side, so every cell still holds a bounded number of points
+ * and each rebuild at least halves the cell side. Queries are O(1).
+ * <p>
+ * An insert costs O(1) plus an O(n) rebuild when it halves δ. Nothing here
+ * is randomized, so the bound depends on the insertion order: n inserts
+ * take O(n log(δ0 / δ)) time in all, where δ0 is the distance of the first
+ * two points, which is O(n^2) when an adversarial order halves δ on every
+ * insert. In random order the i-th point lowers δ with probability at most
+ * 2 / i, so inserts take amortized O(1) expected time.
+ * <p>
+ * Large batches are bootstrapped with {@link ClosestPair} instead of
+ * being inserted one by one. Not thread-safe.
+ */
+public class DynamicClosestPair {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Metrics metrics;
+    private final ClosestPair bootstrap;
+
+    private double[] xs;
+    private double[] ys;
+    private int size;
+    private final CellGrid grid;
+
+    private int first = -1;
+    private int second = -1;
+    private double bestSquared = Double.POSITIVE_INFINITY;
+
+    public DynamicClosestPair(Metrics metrics) {
+        this.metrics = metrics;
+        this.bootstrap = new ClosestPair(metrics);
+        this.xs = new double[INITIAL_CAPACITY];
+        this.ys = new double[INITIAL_CAPACITY];
+        this.grid = new CellGrid(INITIAL_CAPACITY);
+        metrics.recordAllocation(2L * INITIAL_CAPACITY + grid.footprint());
+    }
+
+    /**
+     * Starts from a copy of the given points, solved once with {@link ClosestPair}
+     */
+    public DynamicClosestPair(Metrics metrics, PointSet initial) {
+        this(metrics);
+        addAll(initial);
+    }
+
+    /**
+     * Inserts one point: O(1) unless it halves the closest distance, which
+     * rebuilds the grid in O(n); amortized O(1) expected only for random
+     * insertion order, see {@link DynamicClosestPair}
+     * @return index of the new point
+     */
+    public int add(double x, double y) {
+        ensureCapacity(size + 1);
+        xs[size] = x;
+        ys[size] = y;
+        insert(size++);
+        return size - 1;
+    }
+
+    /**
+     * Inserts a copy of every point in the batch; indices continue from {@link #size()}
+     */
+    public void addAll(PointSet batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        addAll(batch.xs(), batch.ys());
+    }
+
+    /**
+     * Inserts the points (batchXs[i], batchYs[i]); indices continue from {@link #size()}.
+     * A batch at least as large as the current set is solved from scratch with
+     * {@link ClosestPair} and followed by a single grid rebuild.
+     */
+    public void addAll(double[] batchXs, double[] batchYs) {
+        if (batchXs == null || batchYs == null) {
+            throw new IllegalArgumentException("Coordinate arrays cannot be null");
+        }
+        if (batchXs.length != batchYs.length) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length");
+        }
+
+        int from = size;
+        int count = batchXs.length;
+        ensureCapacity(from + count);
+        System.arraycopy(batchXs, 0, xs, from, count);
+        System.arraycopy(batchYs, 0, ys, from, count);
+        size = from + count;
+
+        if (count >= from && size >= 2) {
+            solveFromScratch();
+            return;
+        }
+        for (int p = from; p < size; p++) {
+            insert(p);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double x(int i) {
+        return xs[i];
+    }
+
+    public double y(int i) {
+        return ys[i];
+    }
+
+    /**
+     * @return indices {i, j} of the current closest pair with i < j
+     */
+    public int[] closestPairIndices() {
+        requirePair();
+        return first < second ? new int[]{first, second} : new int[]{second, first};
+    }
+
+    public double closestDistance() {
+        requirePair();
+        return Math.sqrt(bestSquared);
+    }
+
+    private void requirePair() {
+        if (size < 2) {
+            throw new IllegalStateException("At least 2 points required");
+        }
+    }
+
+    /**
+     * Checks point p, already stored, against the grid and adds it
+     */
+    private void insert(int p) {
+        if (p == 0) return;
+        if (p == 1) {
+            metrics.recordComparison();
+            update(0, 1, distanceSquared(0, 1));
+            if (bestSquared > 0) {
+                rebuild(2);
+            }
+            return;
+        }
+        // A zero distance can never improve; the grid is no longer needed
+        if (bestSquared == 0) return;
+
+        double px = xs[p];
+        double py = ys[p];
+        long cx = grid.cell(px);
+        long cy = grid.cell(py);
+        for (long gx = cx - 1; gx <= cx + 1; gx++) {
+            for (long gy = cy - 1; gy <= cy + 1; gy++) {
+                for (int q = grid.first(gx, gy); q >= 0; q = grid.next(q)) {
+                    metrics.recordComparison();
+                    double distanceSquared = distanceSquared(p, q);
+                    if (distanceSquared < bestSquared) {
+                        update(p, q, distanceSquared);
+                    }
+                }
+            }
+        }
+
+        if (bestSquared == 0) return;
+        double halfCell = grid.cellSize() / 2;
+        if (bestSquared < halfCell * halfCell) {
+            rebuild(p + 1);
+        } else {
+            grid.insert(p, px, py);
+        }
+    }
+
+    private void solveFromScratch() {
+        PointSet all = new PointSet(Arrays.copyOf(xs, size), Arrays.copyOf(ys, size));
+        metrics.recordAllocation(2L * size);
+        int[] pair = bootstrap.findClosestPairIndices(all);
+        update(pair[0], pair[1], all.distanceSquared(pair[0], pair[1]));
+        if (bestSquared > 0) {
+            rebuild(size);
+        }
+    }
+
+    /**
+     * Refills the grid with points [0, count) using the current closest distance as cell side
+     */
+    private void rebuild(int count) {
+        grid.clear(Math.sqrt(bestSquared));
+        for (int p = 0; p < count; p++) {
+            grid.insert(p, xs[p], ys[p]);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= xs.length) return;
+
+        int newCapacity = Math.max(capacity, xs.length * 2);
+        xs = Arrays.copyOf(xs, newCapacity);
+        ys = Arrays.copyOf(ys, newCapacity);
+        // A reallocated grid is empty and must be refilled with the points inserted so far
+        if (grid.ensureCapacity(newCapacity) && size >= 2 && bestSquared > 0) {
+            rebuild(size);
+        }
+        metrics.recordAllocation(2L * newCapacity + grid.footprint());
+    }
+
+    private void update(int p, int q, double distanceSquared) {
+        first = p;
+        second = q;
+        bestSquared = distanceSquared;
+    }
+
+    private double distanceSquared(int p, int q) {
+        double dx = xs[p] - xs[q];
+        double dy = ys[p] - ys[q];
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,252 @@
+package algorithms;
+
+import metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sorts a binary file of 32-bit keys (big-endian, as written by
+ * {@link java.io.DataOutputStream}) that need not fit in memory.
+ * The input is memory-mapped one run at a time; each run is copied into
+ * an int[] of {@code runLength}, sorted with {@link QuickSort} and spilled
+ * to a temporary file. Runs are then merged through a {@link LoserTree}
+ * with one block-sized direct buffer per run, all I/O being large
+ * sequential reads and writes. The merge shares the run memory budget
+ * between its input blocks, so when there are more runs than blocks of
+ * {@link #MIN_MERGE_BLOCK} fit, runs are merged in several passes.
+ */
+public class ExternalMergeSort {
+    public static final int DEFAULT_RUN_LENGTH = 1 << 25;
+    public static final int MIN_RUN_LENGTH = 1 << 10;
+    /**
+     * Smallest per-run read block, in ints; below this each read costs more in
+     * system calls (and seeks, on disks) than it transfers
+     */
+    public static final int MIN_MERGE_BLOCK = 1 << 13;
+    private static final int MAX_MERGE_BLOCK = 1 << 20;
+
+    private final Metrics metrics;
+    private final int runLength;
+    private final Path tempDirectory;
+    private final QuickSort sorter;
+
+    public ExternalMergeSort(Metrics metrics) {
+        this(metrics, DEFAULT_RUN_LENGTH, null);
+    }
+
+    /**
+     * @param runLength     ints sorted in memory at a time; runs need about 4 * runLength bytes
+     *                      of heap and merges the same again, half of it in direct buffers
+     * @param tempDirectory where runs are spilled, or null for the default temporary directory
+     */
+    public ExternalMergeSort(Metrics metrics, int runLength, Path tempDirectory) {
+        if (runLength < MIN_RUN_LENGTH) {
+            throw new IllegalArgumentException("Run length must be at least " + MIN_RUN_LENGTH);
+        }
+        this.metrics = metrics;
+        this.runLength = runLength;
+        this.tempDirectory = tempDirectory;
+        this.sorter = new QuickSort(metrics);
+    }
+
+    /**
+     * Writes the keys of input to output in ascending order; output is replaced
+     * @return number of keys sorted
+     */
+    public long sort(Path input, Path output) throws IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Paths cannot be null");
+        }
+        if (Files.exists(output) && Files.isSameFile(input, output)) {
+            throw new IllegalArgumentException("Output cannot be the input file");
+        }
+        long bytes = Files.size(input);
+        if (bytes % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("Input length must be a multiple of " + Integer.BYTES + " bytes");
+        }
+        long count = bytes / Integer.BYTES;
+        int runs = (int) ((count + runLength - 1) / runLength);
+
+        Path spill = runs > 1 ? createTempFile() : null;
+        Path spare = null;
+        try {
+            // A single run needs no merge and goes straight to the output
+            createRuns(input, count, runs > 1 ? spill : output);
+            if (runs <= 1) return count;
+
+            int fanIn = Math.max(2, runLength / MIN_MERGE_BLOCK - 1);
+            long length = runLength;
+            while (runs > fanIn) {
+                if (spare == null) {
+                    spare = createTempFile();
+                }
+                mergePass(spill, spare, count, length, fanIn);
+                Path merged = spare;
+                spare = spill;
+                spill = merged;
+                length *= fanIn;
+                runs = (runs + fanIn - 1) / fanIn;
+            }
+            mergePass(spill, output, count, length, runs);
+            return count;
+        } finally {
+            if (spill != null) Files.deleteIfExists(spill);
+            if (spare != null) Files.deleteIfExists(spare);
+        }
+    }
+
+    private Path createTempFile() throws IOException {
+        return tempDirectory == null
+                ? Files.createTempFile("runs", ".bin")
+                : Files.createTempFile(tempDirectory, "runs", ".bin");
+    }
+
+    /**
+     * Sorts consecutive runs of runLength keys and writes them, in order, to target
+     */
+    private void createRuns(Path input, long count, Path target) throws IOException {
+        int[] run = new int[(int) Math.min(runLength, count)];
+        ByteBuffer out = ByteBuffer.allocateDirect(Math.min(run.length, MAX_MERGE_BLOCK) * Integer.BYTES);
+        metrics.recordAllocation(run.length + out.capacity() / Integer.BYTES);
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel channel = openForWriting(target)) {
+            for (long start = 0; start < count; start += runLength) {
+                int length = (int) Math.min(runLength, count - start);
+                MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY,
+                        start * Integer.BYTES, (long) length * Integer.BYTES);
+                mapped.asIntBuffer().get(run, 0, length);
+
+                sorter.sort(run, 0, length - 1);
+                write(channel, out, run, length);
+            }
+        }
+    }
+
+    /**
+     * Merges groups of fanIn consecutive runs of runLength keys from source into
+     * runs of fanIn * runLength keys in target
+     */
+    private void mergePass(Path source, Path target, long count, long runLength, int fanIn) throws IOException {
+        int block = Math.max(MIN_MERGE_BLOCK, Math.min(MAX_MERGE_BLOCK, this.runLength / (fanIn + 1)));
+        RunReader[] readers = new RunReader[fanIn];
+        for (int i = 0; i < fanIn; i++) {
+            readers[i] = new RunReader(block);
+        }
+        int[] merged = new int[block];
+        ByteBuffer out = ByteBuffer.allocateDirect(block * Integer.BYTES);
+        long[] heads = new long[fanIn];
+        metrics.recordAllocation(2L * (fanIn + 1) * block + fanIn);
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel channel = openForWriting(target)) {
+            long groupLength = runLength * fanIn;
+            for (long groupStart = 0; groupStart < count; groupStart += groupLength) {
+                for (int i = 0; i < fanIn; i++) {
+                    long start = Math.min(count, groupStart + i * runLength);
+                    long end = Math.min(count, start + runLength);
+                    readers[i].open(in, start, end);
+                    heads[i] = readers[i].next();
+                }
+
+                LoserTree tree = new LoserTree(metrics, heads);
+                int filled = 0;
+                for (long key = tree.winnerKey(); key != LoserTree.EXHAUSTED; key = tree.winnerKey()) {
+                    merged[filled++] = (int) key;
+                    if (filled == merged.length) {
+                        write(channel, out, merged, filled);
+                        filled = 0;
+                    }
+                    tree.replaceWinner(readers[tree.winner()].next());
+                }
+                write(channel, out, merged, filled);
+            }
+        }
+    }
+
+    private static FileChannel openForWriting(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends values[0..length) to the channel, staging them through the direct buffer
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer, int[] values, int length) throws IOException {
+        int chunk = buffer.capacity() / Integer.BYTES;
+        for (int from = 0; from < length; from += chunk) {
+            int size = Math.min(chunk, length - from);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, from, size);
+            buffer.limit(size * Integer.BYTES);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Sequential reader of one run, refilled a block at a time with positional reads
+     */
+    private static final class RunReader {
+        private final ByteBuffer bytes;
+        private final IntBuffer ints;
+        private final int[] block;
+        private FileChannel channel;
+        private long position;
+        private long end;
+        private int index;
+        private int size;
+
+        RunReader(int blockLength) {
+            bytes = ByteBuffer.allocateDirect(blockLength * Integer.BYTES);
+            ints = bytes.asIntBuffer();
+            block = new int[blockLength];
+        }
+
+        /**
+         * Starts reading keys [start, end) of the channel
+         */
+        void open(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            index = 0;
+            size = 0;
+        }
+
+        /**
+         * Next key of the run, or {@link LoserTree#EXHAUSTED}
+         */
+        long next() throws IOException {
+            if (index == size) {
+                if (position == end) return LoserTree.EXHAUSTED;
+                refill();
+            }
+            return block[index++];
+        }
+
+        private void refill() throws IOException {
+            int length = (int) Math.min(block.length, end - position);
+            bytes.clear().limit(length * Integer.BYTES);
+            long offset = position * Integer.BYTES;
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, offset + bytes.position()) < 0) {
+                    throw new IOException("Unexpected end of run file");
+                }
+            }
+            ints.clear();
+            ints.get(block, 0, length);
+            position += length;
+            index = 0;
+            size = length;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package algorithms;
+
+import metrics.Metrics;
+import util.Point;
+import util.PointSet;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Randomized incremental Closest Pair in expected O(n).
+ * Points are inserted in random order into a {@link CellGrid} whose cell
+ * side is the best distance δ found so far, so a new point only has to be
+ * checked against the 3x3 cells around it, each holding at most four
+ * points. When a point improves δ the grid is rebuilt from the points
+ * inserted so far; after a random shuffle the i-th insertion does so with
+ * probability at most 2/i, which keeps the expected total rebuild work linear.
+ */
+public class GridClosestPair {
+    private final Metrics metrics;
+
+    public GridClosestPair(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Same contract as {@link ClosestPair#findClosestPair(Point[])}
+     */
+    public Point[] findClosestPair(Point[] points) {
+        if (points == null || points.length < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+
+        int[] pair = findClosestPairIndices(PointSet.of(points));
+        Point a = points[pair[0]];
+        Point b = points[pair[1]];
+        return ClosestPair.compareByXThenY(a, b) <= 0 ? new Point[]{a, b} : new Point[]{b, a};
+    }
+
+    /**
+     * Same contract as {@link ClosestPair#findClosestPairIndices(PointSet)}
+     */
+    public int[] findClosestPairIndices(PointSet points) {
+        if (points == null || points.size() < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+
+        int n = points.size();
+        int[] order = shuffledIndices(n);
+
+        // Coordinates copied in insertion order so that inserts and rebuilds stream through memory;
+        // the grid stores positions in this order, mapped back through order at the end
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = points.x(order[i]);
+            ys[i] = points.y(order[i]);
+        }
+        CellGrid grid = new CellGrid(n);
+        metrics.recordAllocation(3L * n + grid.footprint());
+
+        int first = 0;
+        int second = 1;
+        double bestSquared = distanceSquared(xs, ys, 0, 1);
+        metrics.recordComparison();
+        if (bestSquared > 0) {
+            rebuild(grid, Math.sqrt(bestSquared), 2, xs, ys);
+        }
+
+        for (int p = 2; p < n && bestSquared > 0; p++) {
+            double px = xs[p];
+            double py = ys[p];
+            long cx = grid.cell(px);
+            long cy = grid.cell(py);
+
+            int nearest = -1;
+            double nearestSquared = bestSquared;
+            for (long gx = cx - 1; gx <= cx + 1; gx++) {
+                for (long gy = cy - 1; gy <= cy + 1; gy++) {
+                    for (int q = grid.first(gx, gy); q >= 0; q = grid.next(q)) {
+                        metrics.recordComparison();
+                        double dx = xs[q] - px;
+                        double dy = ys[q] - py;
+                        double distanceSquared = dx * dx + dy * dy;
+                        if (distanceSquared < nearestSquared) {
+                            nearest = q;
+                            nearestSquared = distanceSquared;
+                        }
+                    }
+                }
+            }
+
+            if (nearest < 0) {
+                grid.insert(p, px, py);
+                continue;
+            }
+            first = p;
+            second = nearest;
+            bestSquared = nearestSquared;
+            if (bestSquared > 0) {
+                rebuild(grid, Math.sqrt(bestSquared), p + 1, xs, ys);
+            }
+        }
+
+        first = order[first];
+        second = order[second];
+        return first < second ? new int[]{first, second} : new int[]{second, first};
+    }
+
+    /**
+     * Refills the grid with the first count points, using cells of the given side
+     */
+    private static void rebuild(CellGrid grid, double cellSize, int count, double[] xs, double[] ys) {
+        grid.clear(cellSize);
+        for (int p = 0; p < count; p++) {
+            grid.insert(p, xs[p], ys[p]);
+        }
+    }
+
+    private static double distanceSquared(double[] xs, double[] ys, int p, int q) {
+        double dx = xs[p] - xs[q];
+        double dy = ys[p] - ys[q];
+        return dx * dx + dy * dy;
+    }
+
+    private static int[] shuffledIndices(int n) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,118 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * {@link CellGrid} for any dimension: cells are keyed by a vector of
+ * integer cell coordinates, stored flat with a stride of the dimension.
+ * Cell coordinates are computed by the caller, so the cell side is not
+ * part of the grid. Callers probe up to 2^d mostly empty cells per point,
+ * so a cache-resident occupancy bitset answers most misses before the
+ * table is touched.
+ */
+final class HyperCellGrid {
+    private static final int EMPTY = -1;
+
+    private final int dimension;
+    private final long[] cells;
+    private final int[] head;
+    private final int[] stamp;
+    private final int[] next;
+    private final int mask;
+    private final long[] occupied;
+    private final int occupiedMask;
+    private int generation = 1;
+
+    HyperCellGrid(int dimension, int pointCapacity) {
+        // Load factor <= 1/2: at most one cell per point
+        int tableSize = Integer.highestOneBit(Math.max(pointCapacity, 2) - 1) << 2;
+        this.dimension = dimension;
+        this.cells = new long[tableSize * dimension];
+        this.head = new int[tableSize];
+        this.stamp = new int[tableSize];
+        this.next = new int[pointCapacity];
+        this.mask = tableSize - 1;
+        // Four filter bits per slot, so at least eight per point; one word minimum
+        this.occupied = new long[Math.max(1, tableSize / 16)];
+        this.occupiedMask = occupied.length * Long.SIZE - 1;
+    }
+
+    /**
+     * Number of array elements backing the grid, for allocation metrics
+     */
+    long footprint() {
+        return cells.length + 2L * stamp.length + next.length + occupied.length;
+    }
+
+    void clear() {
+        Arrays.fill(occupied, 0);
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    void insert(int point, long[] cell) {
+        int hash = hash(cell);
+        int bit = filterBit(hash);
+        occupied[bit >>> 6] |= 1L << bit;
+        int slot = find(cell, hash);
+        if (stamp[slot] != generation) {
+            stamp[slot] = generation;
+            System.arraycopy(cell, 0, cells, slot * dimension, dimension);
+            head[slot] = EMPTY;
+        }
+        next[point] = head[slot];
+        head[slot] = point;
+    }
+
+    /**
+     * First point of the chain in the given cell, or -1 if the cell is empty
+     */
+    int first(long[] cell) {
+        int hash = hash(cell);
+        int bit = filterBit(hash);
+        if ((occupied[bit >>> 6] & (1L << bit)) == 0) return EMPTY;
+        int slot = find(cell, hash);
+        return stamp[slot] == generation ? head[slot] : EMPTY;
+    }
+
+    /**
+     * Point after the given one in its cell's chain, or -1 at the end
+     */
+    int next(int point) {
+        return next[point];
+    }
+
+    // Linear probing: the slot holding cell, or the free slot where it would go
+    private int find(long[] cell, int hash) {
+        int slot = hash & mask;
+        while (stamp[slot] == generation && !matches(slot, cell)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Taken from the high bits, independent of the slot
+    private int filterBit(int hash) {
+        return Integer.rotateLeft(hash, 16) & occupiedMask;
+    }
+
+    private boolean matches(int slot, long[] cell) {
+        int base = slot * dimension;
+        for (int axis = 0; axis < dimension; axis++) {
+            if (cells[base + axis] != cell[axis]) return false;
+        }
+        return true;
+    }
+
+    private static int hash(long[] cell) {
+        long h = 0;
+        for (long c : cell) {
+            h = (h + c) * 0x9E3779B97F4A7C15L;
+        }
+        h ^= h >>> 32;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29));
+    }
+}
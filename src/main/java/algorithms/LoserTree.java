@@ -0,0 +1,80 @@
+package algorithms;
+
+import metrics.Metrics;
+
+/**
+ * Tournament tree of losers over the current heads of k sorted sources,
+ * keyed by long so that any int key sorts before {@link #EXHAUSTED}.
+ * Each internal node holds the source that lost the match played there and
+ * node 0 holds the overall winner, so replacing the winner's key replays
+ * exactly one leaf-to-root path: ceil(log2 k) comparisons per element,
+ * against about twice that for a binary heap.
+ */
+final class LoserTree {
+    static final long EXHAUSTED = Long.MAX_VALUE;
+
+    private final Metrics metrics;
+    private final long[] keys;
+    private final int[] tree;
+    private final int k;
+
+    /**
+     * @param keys first key of every source, {@link #EXHAUSTED} for an empty one; not copied
+     */
+    LoserTree(Metrics metrics, long[] keys) {
+        this.metrics = metrics;
+        this.keys = keys;
+        this.k = keys.length;
+        this.tree = new int[k];
+
+        tree[0] = play(1);
+    }
+
+    /**
+     * Plays the matches below node, storing each loser
+     * @return winner of the subtree; nodes from k up are the leaves, node k + s being source s
+     */
+    private int play(int node) {
+        if (node >= k) return node - k;
+        int left = play(2 * node);
+        int right = play(2 * node + 1);
+        if (beats(right, left)) {
+            tree[node] = left;
+            return right;
+        }
+        tree[node] = right;
+        return left;
+    }
+
+    /**
+     * Source holding the smallest current key
+     */
+    int winner() {
+        return tree[0];
+    }
+
+    long winnerKey() {
+        return keys[tree[0]];
+    }
+
+    /**
+     * Replaces the winner's key with its source's next key, or {@link #EXHAUSTED}
+     */
+    void replaceWinner(long key) {
+        int s = tree[0];
+        keys[s] = key;
+        for (int node = (s + k) >>> 1; node > 0; node >>>= 1) {
+            int opponent = tree[node];
+            if (beats(opponent, s)) {
+                tree[node] = s;
+                s = opponent;
+            }
+        }
+        tree[0] = s;
+    }
+
+    private boolean beats(int a, int b) {
+        metrics.recordComparison();
+        return keys[a] < keys[b];
+    }
+}
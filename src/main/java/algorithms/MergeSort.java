@@ -4,37 +4,290 @@ import metrics.Metrics;
 import util.ArrayUtils;
 
 /**
- * MergeSort with linear merge, buffer reuse, and insertion sort cutoff
+ * MergeSort with linear merge, buffer reuse, and insertion sort cutoff.
+ * {@link Strategy#NATURAL} merges the runs already present in the input instead;
+ * {@link Strategy#BOTTOM_UP} merges iteratively without copying runs to scratch first.
  */
 public class MergeSort {
     private final Metrics metrics;
+    private final Strategy strategy;
     private static final int INSERTION_SORT_CUTOFF = 15;
 
+    /**
+     * How the array is divided into runs to merge
+     */
+    public enum Strategy {
+        /** Halves at the midpoint down to the insertion sort cutoff, whatever the input */
+        TOP_DOWN,
+        /**
+         * Merges the ascending runs found by one scan, after reversing strictly
+         * descending ones: O(n) on sorted or reversed input, O(n log r) for r runs
+         */
+        NATURAL,
+        /**
+         * Merges runs of doubling width in passes that alternate between the array and
+         * the buffer: each pass moves n elements once, against twice for top-down,
+         * whose merges copy their range to the buffer first. No recursion.
+         */
+        BOTTOM_UP
+    }
+
     public MergeSort(Metrics metrics) {
+        this(metrics, Strategy.TOP_DOWN);
+    }
+
+    public MergeSort(Metrics metrics, Strategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
         this.metrics = metrics;
+        this.strategy = strategy;
     }
 
     public void sort(int[] array) {
         if (array == null || array.length <= 1) return;
 
+        if (strategy == Strategy.NATURAL) {
+            sortNatural(array);
+            return;
+        }
+        if (strategy == Strategy.BOTTOM_UP) {
+            sortBottomUp(array);
+            return;
+        }
+
         int[] buffer = new int[array.length];
         metrics.recordAllocation(array.length);
         sort(array, 0, array.length - 1, buffer);
     }
 
-    private void sort(int[] array, int left, int right, int[] buffer) {
-        metrics.recordDepth();
+    /**
+     * Sorts array[left..right] using buffer[left..right] as scratch space
+     */
+    void sort(int[] array, int left, int right, int[] buffer) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            // Use insertion sort for small arrays
+            if (right - left <= INSERTION_SORT_CUTOFF) {
+                insertionSort(array, left, right);
+                return;
+            }
+
+            int mid = left + (right - left) / 2;
+            sort(array, left, mid, buffer);
+            sort(array, mid + 1, right, buffer);
+
+            // Runs already in order: nothing to merge
+            metrics.recordComparison();
+            if (array[mid] <= array[mid + 1]) return;
+
+            merge(array, left, mid, right, buffer);
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    /**
+     * Splits array into ascending runs of at least the insertion sort cutoff, then
+     * merges neighbouring runs recursively. Sorted or reversed input is one run and
+     * allocates nothing.
+     */
+    private void sortNatural(int[] array) {
+        int n = array.length;
+        int high = ascendingRun(array, 0);
+        if (high == n) return;
+
+        int minRun = INSERTION_SORT_CUTOFF + 1;
+        // Run r is array[runStart[r], runStart[r + 1]); all but the last are at least minRun long
+        int[] runStart = new int[(n + minRun - 1) / minRun + 1];
+        int runs = 0;
+        for (int low = 0; low < n; low = high) {
+            if (low > 0) {
+                high = ascendingRun(array, low);
+            }
+            if (high - low < minRun) {
+                high = Math.min(low + minRun, n);
+                insertionSort(array, low, high - 1);
+            }
+            runStart[runs++] = low;
+        }
+        runStart[runs] = n;
+
+        int[] buffer = new int[n];
+        metrics.recordAllocation(n + runStart.length);
+        mergeRuns(array, runStart, 0, runs, buffer);
+    }
+
+    /**
+     * End of the ascending run starting at low; a strictly descending run is reversed
+     * first, which keeps equal keys in order
+     */
+    private int ascendingRun(int[] array, int low) {
+        int high = low + 1;
+        if (high == array.length) return high;
+
+        metrics.recordComparison();
+        if (array[high] < array[low]) {
+            while (++high < array.length) {
+                metrics.recordComparison();
+                if (array[high] >= array[high - 1]) break;
+            }
+            for (int i = low, j = high - 1; i < j; i++, j--) {
+                ArrayUtils.swap(array, i, j);
+            }
+        } else {
+            while (++high < array.length) {
+                metrics.recordComparison();
+                if (array[high] < array[high - 1]) break;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Merges runs [fromRun, toRun) into one, splitting at the run boundary nearest
+     * the middle element so a long run is not merged again at every level
+     */
+    private void mergeRuns(int[] array, int[] runStart, int fromRun, int toRun, int[] buffer) {
+        if (toRun - fromRun < 2) return;
+
+        int left = runStart[fromRun];
+        int right = runStart[toRun] - 1;
+        metrics.recordDepth(right - left + 1);
+        try {
+            int middle = left + (right - left) / 2;
+            int lo = fromRun + 1;
+            int hi = toRun - 1;
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                if (runStart[m] < middle) {
+                    lo = m + 1;
+                } else {
+                    hi = m;
+                }
+            }
+            if (lo > fromRun + 1 && middle - runStart[lo - 1] < runStart[lo] - middle) {
+                lo--;
+            }
+
+            mergeRuns(array, runStart, fromRun, lo, buffer);
+            mergeRuns(array, runStart, lo, toRun, buffer);
+
+            int mid = runStart[lo] - 1;
+            // Runs already in order: nothing to merge
+            metrics.recordComparison();
+            if (array[mid] <= array[mid + 1]) return;
+
+            // Left keys up to the right run's first, and right keys from the left run's last, stay put
+            merge(array, firstAbove(array, left, mid, array[mid + 1]), mid,
+                    firstNotBelow(array, mid + 1, right, array[mid]) - 1, buffer);
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    /**
+     * Index of the first key above key in the sorted array[from..to], or to + 1
+     */
+    private int firstAbove(int[] array, int from, int to, int key) {
+        int lo = from;
+        int hi = to + 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            metrics.recordComparison();
+            if (array[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the first key at least key in the sorted array[from..to], or to + 1
+     */
+    private int firstNotBelow(int[] array, int from, int to, int key) {
+        int lo = from;
+        int hi = to + 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            metrics.recordComparison();
+            if (array[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Insertion-sorts base runs of 16 or 32, whichever makes the number of merge
+     * passes even, so that the last pass writes into array and nothing is copied back
+     */
+    private void sortBottomUp(int[] array) {
+        int n = array.length;
+        int run = INSERTION_SORT_CUTOFF + 1;
+        int passes = 0;
+        for (long width = run; width < n; width <<= 1) {
+            passes++;
+        }
+        if ((passes & 1) == 1) {
+            run <<= 1;
+            passes--;
+        }
+
+        for (int low = 0; low < n; low += run) {
+            insertionSort(array, low, Math.min(low + run, n) - 1);
+        }
+        if (passes == 0) return;
+
+        int[] buffer = new int[n];
+        metrics.recordAllocation(n);
+        int[] from = array;
+        int[] to = buffer;
+        for (long width = run; width < n; width <<= 1) {
+            for (long low = 0; low < n; low += 2 * width) {
+                mergeInto(from, to, (int) low, (int) Math.min(low + width, n), (int) Math.min(low + 2 * width, n));
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+    }
+
+    /**
+     * Merges from[low, mid) and from[mid, high) into to[low, high)
+     */
+    private void mergeInto(int[] from, int[] to, int low, int mid, int high) {
+        metrics.recordMoves(high - low);
 
-        // Use insertion sort for small arrays
-        if (right - left <= INSERTION_SORT_CUTOFF) {
-            insertionSort(array, left, right);
+        // A lone run, or runs already in order, cross over as they are
+        if (mid == high) {
+            System.arraycopy(from, low, to, low, high - low);
+            return;
+        }
+        metrics.recordComparison();
+        if (from[mid - 1] <= from[mid]) {
+            System.arraycopy(from, low, to, low, high - low);
             return;
         }
 
-        int mid = left + (right - left) / 2;
-        sort(array, left, mid, buffer);
-        sort(array, mid + 1, right, buffer);
-        merge(array, left, mid, right, buffer);
+        // Branch-free: on random keys a branch here mispredicts half the time
+        int i = low, j = mid, k = low;
+        while (i < mid && j < high) {
+            int left = from[i];
+            int right = from[j];
+            int takeLeft = left <= right ? 1 : 0;
+            to[k++] = takeLeft == 1 ? left : right;
+            i += takeLeft;
+            j += 1 - takeLeft;
+        }
+        // One comparison per element written by the loop
+        metrics.recordComparisons(k - low);
+        System.arraycopy(from, i, to, k, mid - i);
+        System.arraycopy(from, j, to, k + mid - i, high - j);
     }
 
     private void merge(int[] array, int left, int mid, int right, int[] buffer) {
@@ -43,26 +296,31 @@ public class MergeSort {
 
         int i = left, j = mid + 1, k = left;
         while (i <= mid && j <= right) {
-            metrics.recordComparison();
             if (buffer[i] <= buffer[j]) {
                 array[k++] = buffer[i++];
             } else {
                 array[k++] = buffer[j++];
             }
         }
+        // One comparison per element written by the loop
+        metrics.recordComparisons(k - left);
 
         // Copy remaining elements from left side
         while (i <= mid) {
             array[k++] = buffer[i++];
         }
+        // Copy-out plus write-back; a right-side tail was already in place
+        metrics.recordMoves(right - left + 1 + k - left);
     }
 
     private void insertionSort(int[] array, int left, int right) {
+        // Counted in a local and reported once per run
+        long comparisons = 0;
         for (int i = left + 1; i <= right; i++) {
             int key = array[i];
             int j = i - 1;
             while (j >= left) {
-                metrics.recordComparison();
+                comparisons++;
                 if (array[j] > key) {
                     array[j + 1] = array[j];
                     j--;
@@ -72,5 +330,6 @@ public class MergeSort {
             }
             array[j + 1] = key;
         }
+        metrics.recordComparisons(comparisons);
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package algorithms;
+
+import metrics.Metrics;
+import util.FlatPointSet;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closest Pair for points of any dimension, in expected O(2^d n) time.
+ * Generalizes {@link GridClosestPair}: points are inserted in random order
+ * into a {@link HyperCellGrid}, rebuilt whenever the best distance δ improves.
+ * Cells have side 2δ, so a ball of radius δ around a point leaves its cell
+ * on at most one side per axis and at most 2^d cells need probing; cells
+ * whose boundary is already δ away are skipped. 2D inputs go to
+ * {@link ClosestPair}, which is specialized for the plane.
+ */
+public class MultiDimClosestPair {
+    private final Metrics metrics;
+    private final ClosestPair planar;
+
+    public MultiDimClosestPair(Metrics metrics) {
+        this.metrics = metrics;
+        this.planar = new ClosestPair(metrics);
+    }
+
+    /**
+     * Finds the closest pair without creating any point objects
+     * @return indices {i, j} of the closest pair with i < j; their distance is {@code points.distance(i, j)}
+     */
+    public int[] findClosestPairIndices(FlatPointSet points) {
+        if (points == null || points.size() < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+        if (points.dimension() == 2) {
+            return planar.findClosestPairIndices(points.toPointSet());
+        }
+
+        Search search = new Search(metrics, points);
+        search.run();
+        int first = search.order[search.first];
+        int second = search.order[search.second];
+        return first < second ? new int[]{first, second} : new int[]{second, first};
+    }
+
+    /**
+     * State of one search. Points are renumbered in insertion order and their
+     * coordinates copied in that order, so inserts and rebuilds stream through memory.
+     */
+    private static final class Search {
+        private final Metrics metrics;
+        private final int n;
+        private final int dimension;
+        final int[] order;
+        private final double[] coords;
+        private final HyperCellGrid grid;
+
+        private double cellSize;
+        private final long[] cell;
+        private final long[] base;
+        private final int[] direction;
+        private final double[] gapSquared;
+
+        int first;
+        int second;
+        private double bestSquared;
+
+        // Best candidate of the point being probed
+        private int probed;
+        private int nearest;
+        private double nearestSquared;
+
+        Search(Metrics metrics, FlatPointSet points) {
+            this.metrics = metrics;
+            this.n = points.size();
+            this.dimension = points.dimension();
+            this.order = shuffledIndices(n);
+
+            double[] source = points.coords();
+            coords = new double[n * dimension];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(source, order[i] * dimension, coords, i * dimension, dimension);
+            }
+            grid = new HyperCellGrid(dimension, n);
+
+            cell = new long[dimension];
+            base = new long[dimension];
+            direction = new int[dimension];
+            gapSquared = new double[dimension];
+            metrics.recordAllocation((long) n * (dimension + 1) + grid.footprint() + 4L * dimension);
+        }
+
+        void run() {
+            first = 0;
+            second = 1;
+            bestSquared = distanceSquared(0, 1);
+            metrics.recordComparison();
+            if (bestSquared > 0) {
+                rebuild(2);
+            }
+
+            for (int p = 2; p < n && bestSquared > 0; p++) {
+                locate(p);
+                probed = p;
+                nearest = -1;
+                nearestSquared = bestSquared;
+                probe(0, 0);
+
+                if (nearest < 0) {
+                    cellOf(p);
+                    grid.insert(p, cell);
+                    continue;
+                }
+                first = p;
+                second = nearest;
+                bestSquared = nearestSquared;
+                if (bestSquared > 0) {
+                    rebuild(p + 1);
+                }
+            }
+        }
+
+        /**
+         * Finds the cell of point p and, per axis, the adjacent cell its δ-ball may reach
+         * together with the squared gap to that cell
+         */
+        private void locate(int p) {
+            int offset = p * dimension;
+            for (int axis = 0; axis < dimension; axis++) {
+                double scaled = coords[offset + axis] / cellSize;
+                double floor = Math.floor(scaled);
+                double fraction = scaled - floor;
+                base[axis] = (long) floor;
+                double gap;
+                if (fraction < 0.5) {
+                    direction[axis] = -1;
+                    gap = fraction * cellSize;
+                } else {
+                    direction[axis] = 1;
+                    gap = (1 - fraction) * cellSize;
+                }
+                gapSquared[axis] = gap * gap;
+            }
+        }
+
+        /**
+         * Visits the cells reachable from the current point, choosing for each axis
+         * from this one on between its own cell and the adjacent one
+         */
+        private void probe(int axis, double reachSquared) {
+            if (axis == dimension) {
+                scan();
+                return;
+            }
+            cell[axis] = base[axis];
+            probe(axis + 1, reachSquared);
+
+            double adjacentReach = reachSquared + gapSquared[axis];
+            if (adjacentReach < nearestSquared) {
+                cell[axis] = base[axis] + direction[axis];
+                probe(axis + 1, adjacentReach);
+            }
+        }
+
+        private void scan() {
+            for (int q = grid.first(cell); q >= 0; q = grid.next(q)) {
+                metrics.recordComparison();
+                double distanceSquared = distanceSquared(probed, q);
+                if (distanceSquared < nearestSquared) {
+                    nearest = q;
+                    nearestSquared = distanceSquared;
+                }
+            }
+        }
+
+        /**
+         * Refills the grid with points [0, count) using cells of side 2δ
+         */
+        private void rebuild(int count) {
+            cellSize = 2 * Math.sqrt(bestSquared);
+            grid.clear();
+            for (int p = 0; p < count; p++) {
+                cellOf(p);
+                grid.insert(p, cell);
+            }
+        }
+
+        private void cellOf(int p) {
+            int offset = p * dimension;
+            for (int axis = 0; axis < dimension; axis++) {
+                cell[axis] = (long) Math.floor(coords[offset + axis] / cellSize);
+            }
+        }
+
+        private double distanceSquared(int p, int q) {
+            int a = p * dimension;
+            int b = q * dimension;
+            double sum = 0;
+            for (int axis = 0; axis < dimension; axis++) {
+                double d = coords[a + axis] - coords[b + axis];
+                sum += d * d;
+            }
+            return sum;
+        }
+    }
+
+    private static int[] shuffledIndices(int n) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,87 @@
+package algorithms;
+
+/**
+ * Bounded max-heap of point pairs keyed by squared distance, in parallel
+ * primitive arrays. Keeps the best {@code capacity} pairs offered; the
+ * root is the worst of them and serves as the pruning threshold.
+ */
+final class PairHeap {
+    private final double[] keys;
+    private final int[] firsts;
+    private final int[] seconds;
+    private int size;
+
+    PairHeap(int capacity) {
+        keys = new double[capacity];
+        firsts = new int[capacity];
+        seconds = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Squared distance a pair must beat to enter the heap
+     */
+    double threshold() {
+        return size < keys.length ? Double.POSITIVE_INFINITY : keys[0];
+    }
+
+    void offer(double distanceSquared, int first, int second) {
+        if (size < keys.length) {
+            int i = size++;
+            // Sift up
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] >= distanceSquared) break;
+                set(i, keys[parent], firsts[parent], seconds[parent]);
+                i = parent;
+            }
+            set(i, distanceSquared, first, second);
+        } else if (distanceSquared < keys[0]) {
+            siftDown(distanceSquared, first, second);
+        }
+    }
+
+    /**
+     * Empties the heap into a flat array of pairs {i0, j0, i1, j1, ...}
+     * ordered by increasing distance, with i < j within each pair
+     */
+    int[] drainSorted() {
+        int[] pairs = new int[2 * size];
+        while (size > 0) {
+            int a = firsts[0];
+            int b = seconds[0];
+            int slot = 2 * (size - 1);
+            pairs[slot] = Math.min(a, b);
+            pairs[slot + 1] = Math.max(a, b);
+
+            int last = --size;
+            if (last > 0) {
+                siftDown(keys[last], firsts[last], seconds[last]);
+            }
+        }
+        return pairs;
+    }
+
+    // Places the given entry at the root's position and restores heap order below it
+    private void siftDown(double key, int first, int second) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[child + 1] > keys[child]) child++;
+            if (keys[child] <= key) break;
+            set(i, keys[child], firsts[child], seconds[child]);
+            i = child;
+        }
+        set(i, key, first, second);
+    }
+
+    private void set(int i, double key, int first, int second) {
+        keys[i] = key;
+        firsts[i] = first;
+        seconds[i] = second;
+    }
+}
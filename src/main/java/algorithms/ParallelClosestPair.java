@@ -0,0 +1,423 @@
+package algorithms;
+
+import metrics.Metrics;
+import util.Point;
+import util.PointSet;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join Closest Pair. Above a threshold the x-presort, both recursive
+ * halves, the y-merges on the way back up and very large strip checks all
+ * run in parallel; smaller ranges fall back to the sequential
+ * {@link ClosestPair} kernel on the same shared arrays.
+ */
+public class ParallelClosestPair {
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+    private static final int MIN_THRESHOLD = 16;
+
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final ClosestPair sequential;
+
+    public ParallelClosestPair(Metrics metrics) {
+        this(metrics, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param metrics   updated from every worker, so it must be thread-safe
+     *                  ({@link metrics.ConcurrentMetrics} or {@link Metrics#noOp()})
+     * @param threshold ranges at or below this size are solved sequentially
+     */
+    public ParallelClosestPair(Metrics metrics, ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (threshold < MIN_THRESHOLD) {
+            throw new IllegalArgumentException("Threshold must be at least " + MIN_THRESHOLD);
+        }
+        this.metrics = metrics;
+        this.pool = pool;
+        this.threshold = threshold;
+        this.sequential = new ClosestPair(metrics);
+    }
+
+    /**
+     * Same contract as {@link ClosestPair#findClosestPair(Point[])}
+     */
+    public Point[] findClosestPair(Point[] points) {
+        if (points == null || points.length < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+
+        int[] pair = findClosestPairIndices(PointSet.of(points));
+        Point a = points[pair[0]];
+        Point b = points[pair[1]];
+        return ClosestPair.compareByXThenY(a, b) <= 0 ? new Point[]{a, b} : new Point[]{b, a};
+    }
+
+    /**
+     * Same contract as {@link ClosestPair#findClosestPairIndices(PointSet)}
+     */
+    public int[] findClosestPairIndices(PointSet points) {
+        if (points == null || points.size() < 2) {
+            throw new IllegalArgumentException("At least 2 points required");
+        }
+        int n = points.size();
+        if (n <= threshold) {
+            return sequential.findClosestPairIndices(points);
+        }
+
+        int[] order = new int[n];
+        int[] scratch = new int[n];
+        metrics.recordAllocation(2L * n);
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        ParallelSearch search = new ParallelSearch(points.xs(), points.ys(), order, scratch);
+        pool.invoke(search.new SortByXTask(0, n));
+        Result best = pool.invoke(search.new ClosestTask(0, n, metrics.getCurrentDepth()));
+        return best.first < best.second
+                ? new int[]{best.first, best.second}
+                : new int[]{best.second, best.first};
+    }
+
+    /**
+     * Best pair of one subproblem
+     */
+    private static final class Result {
+        final int first;
+        final int second;
+        final double bestSquared;
+
+        Result(int first, int second, double bestSquared) {
+            this.first = first;
+            this.second = second;
+            this.bestSquared = bestSquared;
+        }
+
+        static Result min(Result a, Result b) {
+            return a.bestSquared <= b.bestSquared ? a : b;
+        }
+    }
+
+    /**
+     * Arrays shared by all tasks of one search; tasks only touch their own
+     * ranges of order and scratch
+     */
+    private final class ParallelSearch {
+        private final double[] xs;
+        private final double[] ys;
+        private final int[] order;
+        private final int[] scratch;
+
+        ParallelSearch(double[] xs, double[] ys, int[] order, int[] scratch) {
+            this.xs = xs;
+            this.ys = ys;
+            this.order = order;
+            this.scratch = scratch;
+        }
+
+        private ClosestPair.Search kernel() {
+            return new ClosestPair.Search(metrics, xs, ys, order, scratch);
+        }
+
+        /**
+         * Merges the key-sorted runs order[from, mid) and order[mid, to) in parallel via scratch
+         */
+        private void merge(double[] key, int from, int mid, int to) {
+            if (to - from <= threshold) {
+                kernel().merge(key, from, mid, to);
+                return;
+            }
+            // Runs already in order: nothing to merge
+            if (key[order[mid - 1]] <= key[order[mid]]) return;
+
+            new MergeTask(key, from, mid, mid, to, from).invoke();
+            new CopyBackTask(from, to).invoke();
+        }
+
+        /**
+         * Sorts order[from, to) by x
+         */
+        private class SortByXTask extends RecursiveAction {
+            private final int from;
+            private final int to;
+
+            SortByXTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= threshold) {
+                    kernel().sortByX(from, to);
+                    return;
+                }
+                int mid = (from + to) >>> 1;
+                invokeAll(new SortByXTask(from, mid), new SortByXTask(mid, to));
+                merge(xs, from, mid, to);
+            }
+        }
+
+        /**
+         * Solves order[from, to) and leaves that range sorted by y
+         */
+        private class ClosestTask extends RecursiveTask<Result> {
+            private final int from;
+            private final int to;
+            // Depth of the task that created this one
+            private final int depth;
+
+            ClosestTask(int from, int to, int depth) {
+                this.from = from;
+                this.to = to;
+                this.depth = depth;
+            }
+
+            @Override
+            protected Result compute() {
+                // This worker may be joining another task: count from the parent, not from it
+                int resumed = metrics.resumeDepth(depth);
+                try {
+                    return solve();
+                } finally {
+                    metrics.resumeDepth(resumed);
+                }
+            }
+
+            private Result solve() {
+                if (to - from <= threshold) {
+                    ClosestPair.Search kernel = kernel();
+                    kernel.closest(from, to);
+                    return new Result(kernel.first, kernel.second, kernel.bestSquared);
+                }
+
+                metrics.recordDepth(to - from);
+                try {
+                    int mid = (from + to) >>> 1;
+                    double midX = xs[order[mid]];
+
+                    ClosestTask right = new ClosestTask(mid, to, depth + 1);
+                    right.fork();
+                    Result left = new ClosestTask(from, mid, depth + 1).compute();
+                    Result best = Result.min(left, right.join());
+
+                    merge(ys, from, mid, to);
+
+                    if (to - from <= threshold * 8L) {
+                        ClosestPair.Search kernel = kernel();
+                        kernel.update(best.first, best.second, best.bestSquared);
+                        kernel.strip(from, to, midX);
+                        return new Result(kernel.first, kernel.second, kernel.bestSquared);
+                    }
+                    return parallelStrip(from, to, midX, best);
+                } finally {
+                    metrics.exitDepth();
+                }
+            }
+        }
+
+        /**
+         * Strip check split into y-bands: each band collects its own strip
+         * points, then scans them, continuing into the following bands for
+         * pairs that straddle a band boundary
+         */
+        private Result parallelStrip(int from, int to, double midX, Result best) {
+            int bands = Math.max(2, Math.min(pool.getParallelism() * 4, (to - from) / threshold));
+            Strip strip = new Strip(from, to, bands, midX, best.bestSquared);
+            metrics.recordAllocation(bands);
+
+            strip.new CollectTask(0, bands).invoke();
+            return Result.min(best, strip.new ScanTask(0, bands, best).invoke());
+        }
+
+        private final class Strip {
+            final int from;
+            final int length;
+            final int bands;
+            final double midX;
+            final double limitSquared;
+            final int[] stripEnd;
+
+            Strip(int from, int to, int bands, double midX, double limitSquared) {
+                this.from = from;
+                this.length = to - from;
+                this.bands = bands;
+                this.midX = midX;
+                this.limitSquared = limitSquared;
+                this.stripEnd = new int[bands];
+            }
+
+            int bandStart(int band) {
+                return from + (int) ((long) length * band / bands);
+            }
+
+            private class CollectTask extends RecursiveAction {
+                private final int fromBand;
+                private final int toBand;
+
+                CollectTask(int fromBand, int toBand) {
+                    this.fromBand = fromBand;
+                    this.toBand = toBand;
+                }
+
+                @Override
+                protected void compute() {
+                    if (toBand - fromBand > 1) {
+                        int mid = (fromBand + toBand) >>> 1;
+                        invokeAll(new CollectTask(fromBand, mid), new CollectTask(mid, toBand));
+                        return;
+                    }
+                    stripEnd[fromBand] = kernel().collectStrip(
+                            bandStart(fromBand), bandStart(fromBand + 1), midX, limitSquared);
+                }
+            }
+
+            private class ScanTask extends RecursiveTask<Result> {
+                private final int fromBand;
+                private final int toBand;
+                private final Result initial;
+
+                ScanTask(int fromBand, int toBand, Result initial) {
+                    this.fromBand = fromBand;
+                    this.toBand = toBand;
+                    this.initial = initial;
+                }
+
+                @Override
+                protected Result compute() {
+                    if (toBand - fromBand > 1) {
+                        int mid = (fromBand + toBand) >>> 1;
+                        ScanTask upper = new ScanTask(mid, toBand, initial);
+                        upper.fork();
+                        Result lower = new ScanTask(fromBand, mid, initial).compute();
+                        return Result.min(lower, upper.join());
+                    }
+
+                    int first = initial.first;
+                    int second = initial.second;
+                    double bestSquared = initial.bestSquared;
+
+                    for (int i = bandStart(fromBand); i < stripEnd[fromBand]; i++) {
+                        int p = scratch[i];
+                        double px = xs[p];
+                        double py = ys[p];
+
+                        // Walk the y-ordered successors, crossing into later bands as needed
+                        int band = fromBand;
+                        int j = i + 1;
+                        while (true) {
+                            if (j >= stripEnd[band]) {
+                                if (++band == bands) break;
+                                j = bandStart(band);
+                                continue;
+                            }
+                            int q = scratch[j++];
+                            double dy = ys[q] - py;
+                            if (dy * dy >= bestSquared) break;
+
+                            metrics.recordComparison();
+                            double dx = xs[q] - px;
+                            double distanceSquared = dx * dx + dy * dy;
+                            if (distanceSquared < bestSquared) {
+                                first = p;
+                                second = q;
+                                bestSquared = distanceSquared;
+                            }
+                        }
+                    }
+                    return new Result(first, second, bestSquared);
+                }
+            }
+        }
+
+        /**
+         * Merges order[aFrom, aTo) and order[bFrom, bTo), each sorted by key, into
+         * scratch starting at dest, splitting large merges by co-rank binary search
+         */
+        private class MergeTask extends RecursiveAction {
+            private final double[] key;
+            private final int aFrom, aTo, bFrom, bTo, dest;
+
+            MergeTask(double[] key, int aFrom, int aTo, int bFrom, int bTo, int dest) {
+                this.key = key;
+                this.aFrom = aFrom;
+                this.aTo = aTo;
+                this.bFrom = bFrom;
+                this.bTo = bTo;
+                this.dest = dest;
+            }
+
+            @Override
+            protected void compute() {
+                int total = (aTo - aFrom) + (bTo - bFrom);
+                if (total <= threshold) {
+                    merge();
+                    return;
+                }
+
+                int half = total / 2;
+                int aSplit = aFrom + coRank(half);
+                int bSplit = bFrom + (half - (aSplit - aFrom));
+                invokeAll(new MergeTask(key, aFrom, aSplit, bFrom, bSplit, dest),
+                        new MergeTask(key, aSplit, aTo, bSplit, bTo, dest + half));
+            }
+
+            /**
+             * Number of elements taken from run a among the first m outputs of a stable merge
+             */
+            private int coRank(int m) {
+                int lo = Math.max(0, m - (bTo - bFrom));
+                int hi = Math.min(m, aTo - aFrom);
+                while (lo < hi) {
+                    int i = (lo + hi) >>> 1;
+                    int j = m - i;
+                    if (key[order[aFrom + i]] <= key[order[bFrom + j - 1]]) {
+                        lo = i + 1;
+                    } else {
+                        hi = i;
+                    }
+                }
+                return lo;
+            }
+
+            private void merge() {
+                int i = aFrom, j = bFrom, k = dest;
+                while (i < aTo && j < bTo) {
+                    scratch[k++] = key[order[i]] <= key[order[j]] ? order[i++] : order[j++];
+                }
+                while (i < aTo) scratch[k++] = order[i++];
+                while (j < bTo) scratch[k++] = order[j++];
+            }
+        }
+
+        /**
+         * Copies scratch[from, to) back into order
+         */
+        private class CopyBackTask extends RecursiveAction {
+            private final int from;
+            private final int to;
+
+            CopyBackTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= threshold * 4L) {
+                    System.arraycopy(scratch, from, order, from, to - from);
+                    return;
+                }
+                int mid = (from + to) >>> 1;
+                invokeAll(new CopyBackTask(from, mid), new CopyBackTask(mid, to));
+            }
+        }
+    }
+}
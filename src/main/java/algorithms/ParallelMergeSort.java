@@ -0,0 +1,202 @@
+package algorithms;
+
+import metrics.Metrics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join MergeSort: halves are sorted in parallel and large merges are
+ * split by co-rank binary search so the merge step scales as well.
+ * All tasks share one buffer, so extra memory stays at O(n).
+ */
+public class ParallelMergeSort {
+    public static final int DEFAULT_GRANULARITY = 1 << 13;
+    private static final int MIN_GRANULARITY = 16;
+
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+    private final int granularity;
+    private final MergeSort sequential;
+
+    public ParallelMergeSort(Metrics metrics) {
+        this(metrics, ForkJoinPool.commonPool(), DEFAULT_GRANULARITY);
+    }
+
+    /**
+     * @param metrics     updated from every worker, so it must be thread-safe
+     *                    ({@link metrics.ConcurrentMetrics} or {@link Metrics#noOp()})
+     * @param granularity ranges (and merges) at or below this size run sequentially
+     */
+    public ParallelMergeSort(Metrics metrics, ForkJoinPool pool, int granularity) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (granularity < MIN_GRANULARITY) {
+            throw new IllegalArgumentException("Granularity must be at least " + MIN_GRANULARITY);
+        }
+        this.metrics = metrics;
+        this.pool = pool;
+        this.granularity = granularity;
+        this.sequential = new MergeSort(metrics);
+    }
+
+    public void sort(int[] array) {
+        if (array == null || array.length <= 1) return;
+
+        int[] buffer = new int[array.length];
+        metrics.recordAllocation(array.length);
+        pool.invoke(new SortTask(array, 0, array.length - 1, buffer, metrics.getCurrentDepth()));
+    }
+
+    private class SortTask extends RecursiveAction {
+        private final int[] array;
+        private final int left;
+        private final int right;
+        private final int[] buffer;
+        // Depth of the task that created this one
+        private final int depth;
+
+        SortTask(int[] array, int left, int right, int[] buffer, int depth) {
+            this.array = array;
+            this.left = left;
+            this.right = right;
+            this.buffer = buffer;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            // This worker may be joining another task: count from the parent, not from it
+            int resumed = metrics.resumeDepth(depth);
+            try {
+                sort();
+            } finally {
+                metrics.resumeDepth(resumed);
+            }
+        }
+
+        private void sort() {
+            if (right - left + 1 <= granularity) {
+                sequential.sort(array, left, right, buffer);
+                return;
+            }
+
+            metrics.recordDepth(right - left + 1);
+            try {
+                int mid = left + (right - left) / 2;
+                invokeAll(new SortTask(array, left, mid, buffer, depth + 1),
+                        new SortTask(array, mid + 1, right, buffer, depth + 1));
+
+                // Runs already in order: nothing to merge
+                metrics.recordComparison();
+                if (array[mid] <= array[mid + 1]) return;
+
+                new CopyTask(array, buffer, left, right + 1).invoke();
+                new MergeTask(array, buffer, left, mid + 1, mid + 1, right + 1, left).invoke();
+            } finally {
+                metrics.exitDepth();
+            }
+        }
+    }
+
+    /**
+     * Copies array[from, to) into the same positions of buffer
+     */
+    private class CopyTask extends RecursiveAction {
+        private final int[] array;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+
+        CopyTask(int[] array, int[] buffer, int from, int to) {
+            this.array = array;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= granularity * 4) {
+                System.arraycopy(array, from, buffer, from, to - from);
+                return;
+            }
+            int mid = from + (to - from) / 2;
+            invokeAll(new CopyTask(array, buffer, from, mid), new CopyTask(array, buffer, mid, to));
+        }
+    }
+
+    /**
+     * Merges buffer[aFrom, aTo) and buffer[bFrom, bTo) into array starting at dest.
+     * Large merges split the output in half and locate the matching split point
+     * of each run (the co-ranks) by binary search.
+     */
+    private class MergeTask extends RecursiveAction {
+        private final int[] array;
+        private final int[] buffer;
+        private final int aFrom, aTo, bFrom, bTo, dest;
+
+        MergeTask(int[] array, int[] buffer, int aFrom, int aTo, int bFrom, int bTo, int dest) {
+            this.array = array;
+            this.buffer = buffer;
+            this.aFrom = aFrom;
+            this.aTo = aTo;
+            this.bFrom = bFrom;
+            this.bTo = bTo;
+            this.dest = dest;
+        }
+
+        @Override
+        protected void compute() {
+            int total = (aTo - aFrom) + (bTo - bFrom);
+            if (total <= granularity) {
+                merge();
+                return;
+            }
+
+            int half = total / 2;
+            int aSplit = aFrom + coRank(half);
+            int bSplit = bFrom + (half - (aSplit - aFrom));
+            invokeAll(new MergeTask(array, buffer, aFrom, aSplit, bFrom, bSplit, dest),
+                    new MergeTask(array, buffer, aSplit, aTo, bSplit, bTo, dest + half));
+        }
+
+        /**
+         * Number of elements taken from run a among the first m outputs of a stable merge
+         */
+        private int coRank(int m) {
+            int aLength = aTo - aFrom;
+            int bLength = bTo - bFrom;
+            int lo = Math.max(0, m - bLength);
+            int hi = Math.min(m, aLength);
+
+            while (lo < hi) {
+                int i = (lo + hi) >>> 1;
+                int j = m - i;
+                metrics.recordComparison();
+                // a[i] ties or beats b[j - 1], so more of a belongs in the prefix
+                if (buffer[aFrom + i] <= buffer[bFrom + j - 1]) {
+                    lo = i + 1;
+                } else {
+                    hi = i;
+                }
+            }
+            return lo;
+        }
+
+        private void merge() {
+            int i = aFrom, j = bFrom, k = dest;
+            while (i < aTo && j < bTo) {
+                metrics.recordComparison();
+                if (buffer[i] <= buffer[j]) {
+                    array[k++] = buffer[i++];
+                } else {
+                    array[k++] = buffer[j++];
+                }
+            }
+            if (i < aTo) System.arraycopy(buffer, i, array, k, aTo - i);
+            if (j < bTo) System.arraycopy(buffer, j, array, k, bTo - j);
+        }
+    }
+}
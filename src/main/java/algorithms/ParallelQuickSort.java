@@ -0,0 +1,335 @@
+package algorithms;
+
+import metrics.Metrics;
+import util.ArrayUtils;
+import util.PartitionUtils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fork/join QuickSort: the smaller partition is forked as a task while the
+ * current task loops on the larger one. While there are fewer tasks than
+ * workers, each partition pass itself runs in parallel as block-wise
+ * partitioning followed by a parallel swap cleanup. Sorting stays in place;
+ * only O(parallelism) bookkeeping is allocated per parallel partition.
+ */
+public class ParallelQuickSort {
+    public static final int DEFAULT_GRANULARITY = 1 << 13;
+    private static final int MIN_GRANULARITY = 16;
+    private static final int MIN_PARALLEL_PARTITION = 1 << 16;
+    private static final int MIN_BLOCK = 1 << 12;
+
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+    private final int granularity;
+    private final QuickSort sequential;
+
+    public ParallelQuickSort(Metrics metrics) {
+        this(metrics, ForkJoinPool.commonPool(), DEFAULT_GRANULARITY);
+    }
+
+    /**
+     * @param metrics     updated from every worker, so it must be thread-safe
+     *                    ({@link metrics.ConcurrentMetrics} or {@link Metrics#noOp()})
+     * @param granularity ranges at or below this size are sorted sequentially
+     */
+    public ParallelQuickSort(Metrics metrics, ForkJoinPool pool, int granularity) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (granularity < MIN_GRANULARITY) {
+            throw new IllegalArgumentException("Granularity must be at least " + MIN_GRANULARITY);
+        }
+        this.metrics = metrics;
+        this.pool = pool;
+        this.granularity = granularity;
+        this.sequential = new QuickSort(metrics);
+    }
+
+    public void sort(int[] array) {
+        if (array == null || array.length <= 1) return;
+
+        // Partition in parallel only while a range is larger than one worker's share
+        int parallelism = pool.getParallelism();
+        int parallelPartitionThreshold = parallelism > 1
+                ? Math.max(MIN_PARALLEL_PARTITION, array.length / parallelism)
+                : Integer.MAX_VALUE;
+        pool.invoke(new SortTask(array, 0, array.length - 1, parallelPartitionThreshold,
+                metrics.getCurrentDepth(), null));
+    }
+
+    private class SortTask extends RecursiveAction {
+        private final int[] array;
+        private final int left;
+        private final int right;
+        private final int parallelPartitionThreshold;
+        // Depth of the task that created this one
+        private final int depth;
+        private final SortTask next;
+
+        SortTask(int[] array, int left, int right, int parallelPartitionThreshold, int depth, SortTask next) {
+            this.array = array;
+            this.left = left;
+            this.right = right;
+            this.parallelPartitionThreshold = parallelPartitionThreshold;
+            this.depth = depth;
+            this.next = next;
+        }
+
+        @Override
+        protected void compute() {
+            // This worker may be joining another task: count from the parent, not from it
+            int resumed = metrics.resumeDepth(depth);
+            try {
+                sort();
+            } finally {
+                metrics.resumeDepth(resumed);
+            }
+        }
+
+        private void sort() {
+            metrics.recordDepth(right - left + 1);
+            try {
+                int left = this.left;
+                int right = this.right;
+                SortTask forked = null;
+
+                while (right - left + 1 > granularity) {
+                    // Sides are [left, lowEnd] and [highStart, right]
+                    int lowEnd;
+                    int highStart;
+                    int split = right - left + 1 >= parallelPartitionThreshold
+                            ? parallelPartition(array, left, right)
+                            : -1;
+                    if (split > 0) {
+                        lowEnd = split - 1;
+                        highStart = split;
+                    } else {
+                        // Keys equal to the pivot are already in their final place
+                        long band = PartitionUtils.partitionThreeWay(array, left, right, metrics);
+                        lowEnd = PartitionUtils.bandStart(band) - 1;
+                        highStart = PartitionUtils.bandEnd(band) + 1;
+                    }
+
+                    // Fork the smaller side, keep looping on the larger one
+                    if (lowEnd - left < right - highStart) {
+                        forked = new SortTask(array, left, lowEnd, parallelPartitionThreshold, depth + 1, forked);
+                        left = highStart;
+                    } else {
+                        forked = new SortTask(array, highStart, right, parallelPartitionThreshold, depth + 1, forked);
+                        right = lowEnd;
+                    }
+                    forked.fork();
+                }
+
+                sequential.sort(array, left, right);
+
+                for (; forked != null; forked = forked.next) {
+                    forked.join();
+                }
+            } finally {
+                metrics.exitDepth();
+            }
+        }
+    }
+
+    /**
+     * Splits array[left..right] into a prefix of elements <= pivot and a suffix of
+     * elements >= pivot, using all workers.
+     * @return start of the suffix, or -1 if one side came out empty
+     */
+    private int parallelPartition(int[] array, int left, int right) {
+        int length = right - left + 1;
+        int blocks = Math.max(2, Math.min(pool.getParallelism() * 4, length / MIN_BLOCK));
+        BlockPartition partition = new BlockPartition(array, left, length, blocks, medianOfThree(array, left, right));
+        metrics.recordAllocation(blocks);
+
+        new BlockPartitionTask(partition, 0, blocks).invoke();
+
+        int lowTotal = 0;
+        for (int c = 0; c < blocks; c++) {
+            lowTotal += partition.lowCounts[c];
+        }
+        if (lowTotal == 0 || lowTotal == length) {
+            return -1;
+        }
+
+        // High elements left of the split pair up one-to-one with low elements right of it
+        partition.split = left + lowTotal;
+        int swaps = 0;
+        for (int c = 0; c < blocks; c++) {
+            swaps += Math.max(0, partition.highEnd(c) - partition.highStart(c));
+        }
+        if (swaps > 0) {
+            new SwapTask(partition, 0, swaps).invoke();
+        }
+        return partition.split;
+    }
+
+    private int medianOfThree(int[] array, int left, int right) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = array[random.nextInt(left, right + 1)];
+        int b = array[random.nextInt(left, right + 1)];
+        int c = array[random.nextInt(left, right + 1)];
+        metrics.recordComparison();
+        metrics.recordComparison();
+        metrics.recordComparison();
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * Shared state of one block-wise partition pass. After the block phase,
+     * block c holds its low elements in [blockStart(c), blockStart(c) + lowCounts[c])
+     * and its high elements in the rest of the block.
+     */
+    private static final class BlockPartition {
+        final int[] array;
+        final int left;
+        final int length;
+        final int blocks;
+        final int pivot;
+        final int[] lowCounts;
+        int split;
+
+        BlockPartition(int[] array, int left, int length, int blocks, int pivot) {
+            this.array = array;
+            this.left = left;
+            this.length = length;
+            this.blocks = blocks;
+            this.pivot = pivot;
+            this.lowCounts = new int[blocks];
+        }
+
+        int blockStart(int c) {
+            return left + (int) ((long) length * c / blocks);
+        }
+
+        // Misplaced high elements: high part of block c that lies before the split
+        int highStart(int c) {
+            return blockStart(c) + lowCounts[c];
+        }
+
+        int highEnd(int c) {
+            return Math.min(blockStart(c + 1), split);
+        }
+
+        // Misplaced low elements: low part of block c that lies at or after the split
+        int lowStart(int c) {
+            return Math.max(blockStart(c), split);
+        }
+
+        int lowEnd(int c) {
+            return blockStart(c) + lowCounts[c];
+        }
+    }
+
+    private class BlockPartitionTask extends RecursiveAction {
+        private final BlockPartition partition;
+        private final int fromBlock;
+        private final int toBlock;
+
+        BlockPartitionTask(BlockPartition partition, int fromBlock, int toBlock) {
+            this.partition = partition;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int mid = (fromBlock + toBlock) >>> 1;
+                invokeAll(new BlockPartitionTask(partition, fromBlock, mid),
+                        new BlockPartitionTask(partition, mid, toBlock));
+                return;
+            }
+            int from = partition.blockStart(fromBlock);
+            int to = partition.blockStart(fromBlock + 1);
+            partition.lowCounts[fromBlock] = partitionBlock(partition.array, from, to, partition.pivot);
+        }
+
+        /**
+         * Hoare partition of array[from, to): elements equal to the pivot may land on either side
+         * @return number of elements in the low (<= pivot) prefix
+         */
+        private int partitionBlock(int[] array, int from, int to, int pivot) {
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (i <= j) {
+                    metrics.recordComparison();
+                    if (array[i] >= pivot) break;
+                    i++;
+                }
+                while (i <= j) {
+                    metrics.recordComparison();
+                    if (array[j] <= pivot) break;
+                    j--;
+                }
+                if (i <= j) {
+                    ArrayUtils.swap(array, i++, j--);
+                }
+            }
+            return i - from;
+        }
+    }
+
+    /**
+     * Performs swaps [from, to) of the cleanup phase: the t-th misplaced high
+     * element is exchanged with the t-th misplaced low element.
+     */
+    private class SwapTask extends RecursiveAction {
+        private final BlockPartition partition;
+        private final int from;
+        private final int to;
+
+        SwapTask(BlockPartition partition, int from, int to) {
+            this.partition = partition;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > granularity) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SwapTask(partition, from, mid), new SwapTask(partition, mid, to));
+                return;
+            }
+
+            BlockPartition p = partition;
+
+            // Seek the from-th misplaced element on each side
+            int highBlock = 0;
+            int skip = from;
+            while (skip >= Math.max(0, p.highEnd(highBlock) - p.highStart(highBlock))) {
+                skip -= Math.max(0, p.highEnd(highBlock) - p.highStart(highBlock));
+                highBlock++;
+            }
+            int highPos = p.highStart(highBlock) + skip;
+
+            int lowBlock = 0;
+            skip = from;
+            while (skip >= Math.max(0, p.lowEnd(lowBlock) - p.lowStart(lowBlock))) {
+                skip -= Math.max(0, p.lowEnd(lowBlock) - p.lowStart(lowBlock));
+                lowBlock++;
+            }
+            int lowPos = p.lowStart(lowBlock) + skip;
+
+            for (int remaining = to - from; ; ) {
+                ArrayUtils.swap(p.array, highPos++, lowPos++);
+                if (--remaining == 0) break;
+
+                while (highPos >= p.highEnd(highBlock)) {
+                    highBlock++;
+                    highPos = p.highStart(highBlock);
+                }
+                while (lowPos >= p.lowEnd(lowBlock)) {
+                    lowBlock++;
+                    lowPos = p.lowStart(lowBlock);
+                }
+            }
+        }
+    }
+}
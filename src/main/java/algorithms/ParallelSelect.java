@@ -0,0 +1,287 @@
+package algorithms;
+
+import metrics.Metrics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fork/join selection for very large arrays. Each round draws a random sample,
+ * takes two sample elements that bracket rank k with high probability, and
+ * counts in parallel how many elements fall below, between and above them.
+ * Only the part holding rank k (normally the band between the pivots) is
+ * compacted into a fresh buffer, again in parallel, so the working set
+ * shrinks by about the sample size per round. Once it fits the granularity
+ * {@link DeterministicSelect} finishes sequentially.
+ * The input array is never reordered.
+ */
+public class ParallelSelect {
+    public static final int DEFAULT_GRANULARITY = 1 << 16;
+    private static final int MIN_GRANULARITY = 16;
+    private static final int SAMPLE_SIZE = 1 << 14;
+    private static final int MIN_BLOCK = 1 << 12;
+
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+    private final int granularity;
+    private final DeterministicSelect sequential;
+    private final QuickSort sampleSorter;
+
+    public ParallelSelect(Metrics metrics) {
+        this(metrics, ForkJoinPool.commonPool(), DEFAULT_GRANULARITY);
+    }
+
+    /**
+     * @param metrics     updated from every worker, so it must be thread-safe
+     *                    ({@link metrics.ConcurrentMetrics} or {@link Metrics#noOp()})
+     * @param granularity ranges at or below this size are finished by the sequential select
+     */
+    public ParallelSelect(Metrics metrics, ForkJoinPool pool, int granularity) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (granularity < MIN_GRANULARITY) {
+            throw new IllegalArgumentException("Granularity must be at least " + MIN_GRANULARITY);
+        }
+        this.metrics = metrics;
+        this.pool = pool;
+        this.granularity = granularity;
+        this.sequential = new DeterministicSelect(metrics);
+        this.sampleSorter = new QuickSort(metrics);
+    }
+
+    /**
+     * Finds k-th smallest element in array (0-indexed), leaving the array unchanged
+     */
+    public int select(int[] array, int k) {
+        if (array == null || array.length == 0) {
+            throw new IllegalArgumentException("Array cannot be null or empty");
+        }
+        if (k < 0 || k >= array.length) {
+            throw new IllegalArgumentException("k must be between 0 and " + (array.length - 1));
+        }
+
+        int[] current = array;
+        int rank = k;
+        while (current.length > granularity) {
+            Round round = sampleRound(current, rank);
+            pool.invoke(new CountTask(round, 0, round.blocks));
+
+            long below = 0;
+            long inside = 0;
+            for (int c = 0; c < round.blocks; c++) {
+                below += round.belowCounts[c];
+                inside += round.insideCounts[c];
+            }
+
+            // Keep whichever side holds the rank; a miss costs a round but still shrinks the range
+            int region;
+            if (rank < below) {
+                region = Round.BELOW;
+            } else if (rank < below + inside) {
+                region = Round.INSIDE;
+                rank -= below;
+                if (round.low == round.high) {
+                    return round.low;
+                }
+            } else {
+                region = Round.ABOVE;
+                rank -= below + inside;
+            }
+            if (round.regionSize(region) == current.length) {
+                // Every element lies between the pivots: too few distinct keys to split further
+                break;
+            }
+            current = compact(round, region);
+        }
+
+        if (current == array) {
+            current = array.clone();
+            metrics.recordAllocation(current.length);
+        }
+        return sequential.select(current, rank);
+    }
+
+    /**
+     * Picks two sample elements whose ranks straddle rank k's expected position by a few
+     * standard deviations. When that window reaches past either end of the sample the
+     * pivot on that side is dropped, so extreme ranks keep a one-sided band.
+     */
+    private Round sampleRound(int[] array, int k) {
+        int n = array.length;
+        int size = Math.min(SAMPLE_SIZE, n);
+        int[] sample = new int[size];
+        metrics.recordAllocation(size);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            sample[i] = array[random.nextInt(n)];
+        }
+        sampleSorter.sort(sample);
+
+        int expected = (int) ((long) k * size / n);
+        int margin = (int) (1.5 * Math.sqrt(size)) + 1;
+        int low = expected - margin < 0 ? Integer.MIN_VALUE : sample[expected - margin];
+        int high = expected + margin >= size ? Integer.MAX_VALUE : sample[expected + margin];
+
+        int blocks = Math.max(1, Math.min(pool.getParallelism() * 4, n / MIN_BLOCK));
+        metrics.recordAllocation(2L * blocks);
+        return new Round(array, blocks, low, high);
+    }
+
+    /**
+     * Copies the elements of the chosen region into a new array, block by block in parallel
+     */
+    private int[] compact(Round round, int region) {
+        int[] offsets = new int[round.blocks + 1];
+        for (int c = 0; c < round.blocks; c++) {
+            offsets[c + 1] = offsets[c] + round.count(c, region);
+        }
+        int[] target = new int[offsets[round.blocks]];
+        metrics.recordAllocation(target.length + offsets.length);
+
+        pool.invoke(new CompactTask(round, region, offsets, target, 0, round.blocks));
+        return target;
+    }
+
+    /**
+     * Shared state of one round: the pivots and, per block, how many elements
+     * lie below low and how many lie in [low, high]
+     */
+    private static final class Round {
+        static final int BELOW = 0;
+        static final int INSIDE = 1;
+        static final int ABOVE = 2;
+
+        final int[] array;
+        final int blocks;
+        final int low;
+        final int high;
+        final int[] belowCounts;
+        final int[] insideCounts;
+
+        Round(int[] array, int blocks, int low, int high) {
+            this.array = array;
+            this.blocks = blocks;
+            this.low = low;
+            this.high = high;
+            this.belowCounts = new int[blocks];
+            this.insideCounts = new int[blocks];
+        }
+
+        int blockStart(int c) {
+            return (int) ((long) array.length * c / blocks);
+        }
+
+        int count(int c, int region) {
+            if (region == BELOW) return belowCounts[c];
+            if (region == INSIDE) return insideCounts[c];
+            return blockStart(c + 1) - blockStart(c) - belowCounts[c] - insideCounts[c];
+        }
+
+        /**
+         * Smallest value of the region; regions are contiguous value ranges
+         */
+        int regionFrom(int region) {
+            if (region == BELOW) return Integer.MIN_VALUE;
+            if (region == INSIDE) return low;
+            return high + 1;
+        }
+
+        /**
+         * Largest value of the region minus its smallest, as an unsigned width
+         */
+        long regionWidth(int region) {
+            int to = region == BELOW ? low - 1 : region == INSIDE ? high : Integer.MAX_VALUE;
+            return (to - regionFrom(region)) & 0xFFFFFFFFL;
+        }
+
+        long regionSize(int region) {
+            long total = 0;
+            for (int c = 0; c < blocks; c++) {
+                total += count(c, region);
+            }
+            return total;
+        }
+    }
+
+    private class CountTask extends RecursiveAction {
+        private final Round round;
+        private final int fromBlock;
+        private final int toBlock;
+
+        CountTask(Round round, int fromBlock, int toBlock) {
+            this.round = round;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int mid = (fromBlock + toBlock) >>> 1;
+                invokeAll(new CountTask(round, fromBlock, mid), new CountTask(round, mid, toBlock));
+                return;
+            }
+            // Counted with arithmetic rather than branches: against pivots near the
+            // median, a compare-and-branch per element mispredicts half the time
+            int[] array = round.array;
+            int low = round.low;
+            long insideLimit = ((round.high - round.low) & 0xFFFFFFFFL) + 1;
+            int below = 0;
+            int inside = 0;
+            for (int i = round.blockStart(fromBlock), end = round.blockStart(fromBlock + 1); i < end; i++) {
+                int value = array[i];
+                metrics.recordComparison();
+                metrics.recordComparison();
+                below += (int) (((long) value - low) >>> 63);
+                // Unsigned offset from low is within the band's width exactly when low <= value <= high
+                inside += (int) ((((value - low) & 0xFFFFFFFFL) - insideLimit) >>> 63);
+            }
+            round.belowCounts[fromBlock] = below;
+            round.insideCounts[fromBlock] = inside;
+        }
+    }
+
+    private class CompactTask extends RecursiveAction {
+        private final Round round;
+        private final int region;
+        private final int[] offsets;
+        private final int[] target;
+        private final int fromBlock;
+        private final int toBlock;
+
+        CompactTask(Round round, int region, int[] offsets, int[] target, int fromBlock, int toBlock) {
+            this.round = round;
+            this.region = region;
+            this.offsets = offsets;
+            this.target = target;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int mid = (fromBlock + toBlock) >>> 1;
+                invokeAll(new CompactTask(round, region, offsets, target, fromBlock, mid),
+                        new CompactTask(round, region, offsets, target, mid, toBlock));
+                return;
+            }
+            if (offsets[fromBlock] == offsets[fromBlock + 1]) return;
+
+            int[] array = round.array;
+            int from = round.regionFrom(region);
+            long width = round.regionWidth(region);
+            int out = offsets[fromBlock];
+            for (int i = round.blockStart(fromBlock), end = round.blockStart(fromBlock + 1); i < end; i++) {
+                int value = array[i];
+                // Only this rarely taken branch depends on the data
+                boolean keep = ((value - from) & 0xFFFFFFFFL) <= width;
+                if (keep) {
+                    target[out++] = value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package algorithms;
+
+import metrics.Metrics;
+import util.ArrayUtils;
+
+/**
+ * The k smallest elements in sorted order, without sorting everything.
+ * {@link DeterministicSelect} moves the k smallest to the front and only
+ * that prefix is sorted by {@link QuickSort}. {@link #topK} must leave its
+ * input alone, so for small k it keeps a bounded max-heap of the best k
+ * seen so far instead of copying the input: on most inputs almost every
+ * element loses a single comparison against the heap root, so the cost is
+ * one read-only pass and O(k) memory.
+ */
+public class PartialSort {
+    /**
+     * {@link Strategy#AUTO} runs topK through the heap while k * HEAP_RATIO <= n. The
+     * heap saves the O(n) copy that selection needs, but each replacement costs O(log k);
+     * at n = 1e7 on random input the two break even near k = n / 1000.
+     * partialSort always selects: in place, selection was never slower.
+     */
+    public static final int HEAP_RATIO = 1 << 10;
+
+    /**
+     * How the k smallest are found; all strategies produce the same result
+     */
+    public enum Strategy {
+        /** Bounded max-heap of size k, one pass over the input */
+        HEAP,
+        /** Select rank k - 1, then sort the first k positions */
+        SELECT,
+        /**
+         * Select, except topK with small k relative to n (see {@link #HEAP_RATIO});
+         * a heap pass that replaces its root far more often than random input would
+         * (e.g. on descending input) is abandoned for selection
+         */
+        AUTO
+    }
+
+    private final Metrics metrics;
+    private final Strategy strategy;
+    private final DeterministicSelect select;
+    private final QuickSort sorter;
+
+    public PartialSort(Metrics metrics) {
+        this(metrics, Strategy.AUTO);
+    }
+
+    public PartialSort(Metrics metrics, Strategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
+        this.metrics = metrics;
+        this.strategy = strategy;
+        this.select = new DeterministicSelect(metrics, DeterministicSelect.Strategy.FLOYD_RIVEST);
+        this.sorter = new QuickSort(metrics);
+    }
+
+    /**
+     * Reorders array so that its first k positions hold the k smallest elements in
+     * ascending order; the order of the remaining positions is unspecified
+     */
+    public void partialSort(int[] array, int k) {
+        validate(array, k);
+        if (k == 0) return;
+
+        if (strategy == Strategy.HEAP) {
+            // The prefix itself serves as the heap
+            heapify(array, k);
+            int root = array[0];
+            for (int i = k; i < array.length; i++) {
+                metrics.recordComparison();
+                if (array[i] < root) {
+                    ArrayUtils.swap(array, 0, i);
+                    siftDown(array, 0, k);
+                    root = array[0];
+                }
+            }
+            heapSort(array, k);
+        } else {
+            selectAndSort(array, k);
+        }
+    }
+
+    /**
+     * Writes the k smallest elements of array to out[0..k) in ascending order,
+     * leaving array unchanged
+     */
+    public void topK(int[] array, int k, int[] out) {
+        validate(array, k);
+        if (out == null || out.length < k) {
+            throw new IllegalArgumentException("Output must hold at least k elements");
+        }
+        if (k == 0) return;
+
+        boolean heap = strategy == Strategy.HEAP
+                || (strategy == Strategy.AUTO && (long) k * HEAP_RATIO <= array.length);
+        if (heap && heapScan(array, k, out, strategy == Strategy.AUTO ? replacementBudget(array.length, k) : Long.MAX_VALUE)) {
+            heapSort(out, k);
+            return;
+        }
+
+        int[] scratch = array.clone();
+        metrics.recordAllocation(scratch.length);
+        selectAndSort(scratch, k);
+        System.arraycopy(scratch, 0, out, 0, k);
+    }
+
+    /**
+     * Keeps the k smallest elements of array seen so far as a max-heap in out[0..k)
+     * @return false if more than budget replacements were needed and the scan was abandoned
+     */
+    private boolean heapScan(int[] array, int k, int[] out, long budget) {
+        System.arraycopy(array, 0, out, 0, k);
+        heapify(out, k);
+        int root = out[0];
+        long replacements = 0;
+        for (int i = k; i < array.length; i++) {
+            metrics.recordComparison();
+            if (array[i] < root) {
+                if (++replacements > budget) return false;
+                out[0] = array[i];
+                siftDown(out, 0, k);
+                root = out[0];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Four times the k ln(n / k) replacements expected when the input is in random order
+     */
+    private static long replacementBudget(int n, int k) {
+        return 4L * k * (long) Math.ceil(Math.log((double) n / k) + 1);
+    }
+
+    private void validate(int[] array, int k) {
+        if (array == null) {
+            throw new IllegalArgumentException("Array cannot be null");
+        }
+        if (k < 0 || k > array.length) {
+            throw new IllegalArgumentException("k must be between 0 and " + array.length);
+        }
+    }
+
+    private void selectAndSort(int[] array, int k) {
+        if (k < array.length) {
+            select.select(array, k - 1);
+        }
+        sorter.sort(array, 0, k - 1);
+    }
+
+    /**
+     * Turns heap[0..size) into a max-heap
+     */
+    private void heapify(int[] heap, int size) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, size);
+        }
+    }
+
+    /**
+     * Sorts a max-heap of the given size ascending by repeatedly moving the root to the end
+     */
+    private void heapSort(int[] heap, int size) {
+        for (int end = size - 1; end > 0; end--) {
+            ArrayUtils.swap(heap, 0, end);
+            siftDown(heap, 0, end);
+        }
+    }
+
+    private void siftDown(int[] heap, int i, int size) {
+        int value = heap[i];
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size) {
+                metrics.recordComparison();
+                if (heap[child + 1] > heap[child]) {
+                    child++;
+                }
+            }
+            metrics.recordComparison();
+            if (heap[child] <= value) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+}
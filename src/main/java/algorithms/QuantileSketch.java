@@ -0,0 +1,311 @@
+package algorithms;
+
+import metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mergeable streaming quantile sketch (KLL) over ints in bounded memory.
+ * Samples are buffered exactly until more than {@code exactLimit} have been
+ * seen, and quantiles are then answered by {@link DeterministicSelect}.
+ * Beyond that the sketch keeps a stack of compactors: level h holds items
+ * of weight 2^h, and a full level is sorted and every other item (random
+ * offset) promoted to the next level. Level capacities shrink by 2/3 per
+ * level below the top, so about 3k items are retained in total and rank
+ * error is roughly 1.7 / k of the stream length.
+ * Not thread-safe; see {@link ConcurrentQuantileSketch}.
+ */
+public class QuantileSketch {
+    public static final int DEFAULT_K = 200;
+    public static final int DEFAULT_EXACT_LIMIT = 1 << 12;
+    static final int MIN_K = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final Metrics metrics;
+    private final int k;
+    private final int exactLimit;
+    private final QuickSort sorter;
+    private final DeterministicSelect select;
+
+    private int[][] levels;
+    private int[] sizes;
+    private int numLevels;
+    private int retained;
+    private int totalCapacity;
+
+    private long count;
+    private boolean exact = true;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    public QuantileSketch(Metrics metrics) {
+        this(metrics, DEFAULT_K, DEFAULT_EXACT_LIMIT);
+    }
+
+    /**
+     * @param k          accuracy: larger k retains more items and lowers rank error
+     * @param exactLimit stream length up to which every sample is kept and quantiles are exact
+     */
+    public QuantileSketch(Metrics metrics, int k, int exactLimit) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("k must be at least " + MIN_K);
+        }
+        if (exactLimit < 0) {
+            throw new IllegalArgumentException("Exact limit cannot be negative");
+        }
+        this.metrics = metrics;
+        this.k = k;
+        this.exactLimit = exactLimit;
+        this.sorter = new QuickSort(metrics);
+        this.select = new DeterministicSelect(metrics);
+
+        levels = new int[4][];
+        sizes = new int[4];
+        levels[0] = new int[Math.max(capacity(0, 1), 16)];
+        numLevels = 1;
+        totalCapacity = capacity(0, 1);
+        metrics.recordAllocation(levels[0].length);
+    }
+
+    public void update(int value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+
+        if (exact) {
+            if (count > exactLimit) {
+                exact = false;
+                compress();
+            }
+        } else if (retained > totalCapacity) {
+            compactLowest();
+        }
+    }
+
+    /**
+     * Adds all samples summarized by other, which must use the same k; a
+     * sketch merged with itself counts every sample twice
+     */
+    public void merge(QuantileSketch other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Sketch cannot be null");
+        }
+        if (other.k != k) {
+            throw new IllegalArgumentException("Sketches must have the same k");
+        }
+        if (other.count == 0) return;
+        // Appending to the levels being read would never reach their end
+        if (other == this) {
+            other = copy();
+        }
+
+        for (int h = 0; h < other.numLevels; h++) {
+            while (h >= numLevels) {
+                addLevel();
+            }
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+
+        if (exact && other.exact && count <= exactLimit) return;
+        exact = false;
+        compress();
+    }
+
+    /**
+     * Independent copy of this sketch
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(metrics, k, exactLimit);
+        copy.levels = new int[levels.length][];
+        for (int h = 0; h < numLevels; h++) {
+            copy.levels[h] = Arrays.copyOf(levels[h], Math.max(sizes[h], 1));
+            metrics.recordAllocation(copy.levels[h].length);
+        }
+        copy.sizes = sizes.clone();
+        copy.numLevels = numLevels;
+        copy.retained = retained;
+        copy.totalCapacity = totalCapacity;
+        copy.count = count;
+        copy.exact = exact;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * Number of samples seen, including merged ones
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * True while every sample is still buffered and quantiles are exact
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Number of items currently stored
+     */
+    public int retained() {
+        return retained;
+    }
+
+    /**
+     * Estimated q-quantile: the element of rank floor(q * (count - 1)) in sorted order.
+     * Exact in exact mode and for q = 0 and q = 1.
+     */
+    public int quantile(double q) {
+        return quantiles(new double[]{q})[0];
+    }
+
+    /**
+     * Several quantiles at once; in exact mode a single {@link DeterministicSelect#multiSelect} call
+     */
+    public int[] quantiles(double[] qs) {
+        if (qs == null) {
+            throw new IllegalArgumentException("Quantiles cannot be null");
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Sketch is empty");
+        }
+        long[] ranks = new long[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            if (!(qs[i] >= 0 && qs[i] <= 1)) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1");
+            }
+            ranks[i] = (long) Math.floor(qs[i] * (count - 1));
+        }
+
+        return exact ? exactQuantiles(ranks) : estimatedQuantiles(ranks);
+    }
+
+    private int[] exactQuantiles(long[] ranks) {
+        int[] samples = Arrays.copyOf(levels[0], sizes[0]);
+        metrics.recordAllocation(samples.length);
+        int[] intRanks = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            intRanks[i] = (int) ranks[i];
+        }
+        return select.multiSelect(samples, intRanks);
+    }
+
+    private int[] estimatedQuantiles(long[] ranks) {
+        // Value in the high half so that sorting orders by value; weight in the low half
+        long[] weighted = new long[retained];
+        metrics.recordAllocation(retained);
+        int n = 0;
+        for (int h = 0; h < numLevels; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                weighted[n++] = ((long) levels[h][i] << 32) | (1L << h);
+            }
+        }
+        Arrays.sort(weighted);
+
+        int[] result = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            if (ranks[i] == 0) {
+                result[i] = min;
+            } else if (ranks[i] == count - 1) {
+                result[i] = max;
+            } else {
+                result[i] = valueAtRank(weighted, ranks[i]);
+            }
+        }
+        return result;
+    }
+
+    // Smallest stored value whose cumulative weight exceeds rank
+    private static int valueAtRank(long[] weighted, long rank) {
+        long cumulative = 0;
+        for (long item : weighted) {
+            cumulative += item & 0xFFFFFFFFL;
+            if (cumulative > rank) {
+                return (int) (item >> 32);
+            }
+        }
+        return (int) (weighted[weighted.length - 1] >> 32);
+    }
+
+    private void append(int level, int value) {
+        int[] items = levels[level];
+        if (sizes[level] == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels[level] = items;
+            metrics.recordAllocation(items.length);
+        }
+        items[sizes[level]++] = value;
+        retained++;
+    }
+
+    /**
+     * Compacts until the retained items fit the total capacity
+     */
+    private void compress() {
+        while (retained > totalCapacity) {
+            compactLowest();
+        }
+    }
+
+    // Some level is full whenever the total capacity is exceeded
+    private void compactLowest() {
+        int h = 0;
+        while (h < numLevels - 1 && sizes[h] < capacity(h, numLevels)) {
+            h++;
+        }
+        compact(h);
+    }
+
+    /**
+     * Sorts level h and promotes every other item, from a random offset, to level h + 1
+     */
+    private void compact(int h) {
+        if (h == numLevels - 1) {
+            addLevel();
+        }
+        int size = sizes[h];
+        int[] items = levels[h];
+        sorter.sort(items, 0, size - 1);
+
+        // With an odd count the largest item stays behind
+        int pairs = size / 2;
+        int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+        for (int i = 0; i < pairs; i++) {
+            append(h + 1, items[2 * i + offset]);
+        }
+        if (size % 2 == 1) {
+            items[0] = items[size - 1];
+        }
+        sizes[h] = size % 2;
+        retained -= size - size % 2;
+    }
+
+    private void addLevel() {
+        if (numLevels == levels.length) {
+            levels = Arrays.copyOf(levels, numLevels * 2);
+            sizes = Arrays.copyOf(sizes, numLevels * 2);
+        }
+        levels[numLevels] = new int[16];
+        metrics.recordAllocation(16);
+        numLevels++;
+
+        totalCapacity = 0;
+        for (int h = 0; h < numLevels; h++) {
+            totalCapacity += capacity(h, numLevels);
+        }
+    }
+
+    private int capacity(int level, int levelCount) {
+        int depth = levelCount - 1 - level;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+}
@@ -1,47 +1,177 @@
 package algorithms;
 
 import metrics.Metrics;
+import util.ArrayUtils;
 import util.PartitionUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
 /**
- * Robust QuickSort with randomized pivot and smaller-first recursion
+ * Robust QuickSort with randomized pivot and smaller-first recursion.
+ * Besides int[], sorts in place the remaining elements of an {@link IntBuffer}
+ * or of a direct or memory-mapped {@link ByteBuffer}, without a heap copy.
  */
 public class QuickSort {
     private final Metrics metrics;
+    private final PartitionUtils.Scheme scheme;
     private static final int INSERTION_SORT_CUTOFF = 16;
+    // Buffer ranges this small are sorted through an on-heap block (64 KB, cache-sized)
+    static final int BUFFER_BLOCK = 1 << 14;
 
     public QuickSort(Metrics metrics) {
+        this(metrics, PartitionUtils.Scheme.THREE_WAY);
+    }
+
+    public QuickSort(Metrics metrics, PartitionUtils.Scheme scheme) {
+        if (scheme == null) {
+            throw new IllegalArgumentException("Partition scheme cannot be null");
+        }
         this.metrics = metrics;
+        this.scheme = scheme;
     }
 
     public void sort(int[] array) {
         if (array == null || array.length <= 1) return;
 
-        metrics.recordDepth();
         sort(array, 0, array.length - 1);
     }
 
-    private void sort(int[] array, int left, int right) {
-        metrics.recordDepth();
+    /**
+     * Sorts the elements between the buffer's position and limit in place; position and
+     * limit are unchanged. Large ranges are partitioned three-way directly in the buffer,
+     * and once a range fits {@link #BUFFER_BLOCK} it is bulk-copied into one reused
+     * on-heap block and finished with the array code, so heap use stays at 64 KB
+     * whatever the buffer size.
+     */
+    public void sort(IntBuffer buffer) {
+        if (buffer == null || buffer.remaining() <= 1) return;
+
+        IntBuffer keys = buffer.slice();
+        int[] block = new int[Math.min(BUFFER_BLOCK, keys.limit())];
+        metrics.recordAllocation(block.length);
+        sortThreeWay(keys, 0, keys.limit() - 1, block);
+    }
+
+    /**
+     * Sorts the remaining bytes as ints in the buffer's byte order; use
+     * {@link java.nio.ByteOrder#nativeOrder()} for speed
+     */
+    public void sort(ByteBuffer buffer) {
+        if (buffer == null) return;
+
+        sort(ArrayUtils.intView(buffer));
+    }
 
-        // Use iterative approach for large partitions, recursive for small
-        while (left < right) {
-            // Use insertion sort for small arrays
-            if (right - left < INSERTION_SORT_CUTOFF) {
-                insertionSort(array, left, right);
+    /**
+     * Sorts array[left..right] in place
+     */
+    void sort(int[] array, int left, int right) {
+        switch (scheme) {
+            case LOMUTO:
+                sortLomuto(array, left, right);
                 break;
+            case DUAL_PIVOT:
+                sortDualPivot(array, left, right);
+                break;
+            case THREE_WAY:
+            default:
+                sortThreeWay(array, left, right);
+                break;
+        }
+    }
+
+    private void sortLomuto(int[] array, int left, int right) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            // Use iterative approach for large partitions, recursive for small
+            while (left < right) {
+                // Use insertion sort for small arrays
+                if (right - left < INSERTION_SORT_CUTOFF) {
+                    insertionSort(array, left, right);
+                    break;
+                }
+
+                int pivotIndex = PartitionUtils.partition(array, left, right, metrics);
+
+                // Recurse into smaller partition first to bound stack depth
+                if (pivotIndex - left < right - pivotIndex) {
+                    sortLomuto(array, left, pivotIndex - 1);
+                    left = pivotIndex + 1;  // Iterate on larger partition
+                } else {
+                    sortLomuto(array, pivotIndex + 1, right);
+                    right = pivotIndex - 1;  // Iterate on larger partition
+                }
+            }
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    private void sortThreeWay(int[] array, int left, int right) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            while (left < right) {
+                if (right - left < INSERTION_SORT_CUTOFF) {
+                    insertionSort(array, left, right);
+                    break;
+                }
+
+                // Keys equal to the pivot are already in their final place: skip the band
+                long band = PartitionUtils.partitionThreeWay(array, left, right, metrics);
+                int lt = PartitionUtils.bandStart(band);
+                int gt = PartitionUtils.bandEnd(band);
+
+                if (lt - left < right - gt) {
+                    sortThreeWay(array, left, lt - 1);
+                    left = gt + 1;
+                } else {
+                    sortThreeWay(array, gt + 1, right);
+                    right = lt - 1;
+                }
             }
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+
+    private void sortDualPivot(int[] array, int left, int right) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            while (left < right) {
+                if (right - left < INSERTION_SORT_CUTOFF) {
+                    insertionSort(array, left, right);
+                    break;
+                }
 
-            int pivotIndex = PartitionUtils.partition(array, left, right, metrics);
+                long pivots = PartitionUtils.partitionDualPivot(array, left, right, metrics);
+                int lp = PartitionUtils.bandStart(pivots);
+                int gp = PartitionUtils.bandEnd(pivots);
 
-            // Recurse into smaller partition first to bound stack depth
-            if (pivotIndex - left < right - pivotIndex) {
-                sort(array, left, pivotIndex - 1);
-                left = pivotIndex + 1;  // Iterate on larger partition
-            } else {
-                sort(array, pivotIndex + 1, right);
-                right = pivotIndex - 1;  // Iterate on larger partition
+                // Equal pivots mean the middle part is one run of equal keys
+                boolean middleSorted = array[lp] == array[gp];
+                int leftSize = lp - left;
+                int middleSize = middleSorted ? 0 : gp - lp - 1;
+                int rightSize = right - gp;
+
+                // Recurse into the two smaller parts, iterate on the largest
+                if (leftSize >= middleSize && leftSize >= rightSize) {
+                    if (!middleSorted) sortDualPivot(array, lp + 1, gp - 1);
+                    sortDualPivot(array, gp + 1, right);
+                    right = lp - 1;
+                } else if (rightSize >= middleSize) {
+                    sortDualPivot(array, left, lp - 1);
+                    if (!middleSorted) sortDualPivot(array, lp + 1, gp - 1);
+                    left = gp + 1;
+                } else {
+                    sortDualPivot(array, left, lp - 1);
+                    sortDualPivot(array, gp + 1, right);
+                    left = lp + 1;
+                    right = gp - 1;
+                }
             }
+        } finally {
+            metrics.exitDepth();
         }
     }
 
@@ -61,4 +191,33 @@ public class QuickSort {
             array[j + 1] = key;
         }
     }
-}
\ No newline at end of file
+
+    private void sortThreeWay(IntBuffer buffer, int left, int right, int[] block) {
+        metrics.recordDepth(right - left + 1);
+        try {
+            while (right - left + 1 > block.length) {
+                long band = PartitionUtils.partitionThreeWay(buffer, left, right, metrics);
+                int lt = PartitionUtils.bandStart(band);
+                int gt = PartitionUtils.bandEnd(band);
+
+                if (lt - left < right - gt) {
+                    sortThreeWay(buffer, left, lt - 1, block);
+                    left = gt + 1;
+                } else {
+                    sortThreeWay(buffer, gt + 1, right, block);
+                    right = lt - 1;
+                }
+            }
+            if (left >= right) return;
+
+            int length = right - left + 1;
+            buffer.position(left);
+            buffer.get(block, 0, length);
+            sort(block, 0, length - 1);
+            buffer.position(left);
+            buffer.put(block, 0, length);
+        } finally {
+            metrics.exitDepth();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package algorithms;
+
+import metrics.Metrics;
+
+/**
+ * Front door for sorting int arrays: picks an engine per call from the input
+ * size, the value range and a cheap presortedness sample. With
+ * {@link Engine#AUTO}:
+ * <ul>
+ *   <li>up to {@link #INSERTION_THRESHOLD} keys, insertion sort;</li>
+ *   <li>when sampled neighbours are all ascending or all descending,
+ *       natural {@link MergeSort}, linear on presorted input;</li>
+ *   <li>from {@link #RADIX_BASE_KEYS} plus {@link #RADIX_KEYS_PER_PASS} keys
+ *       per radix pass the value range needs, {@link RadixSort};</li>
+ *   <li>otherwise natural {@link MergeSort};</li>
+ * </ul>
+ * and {@link QuickSort}, the only engine without an n-int scratch buffer,
+ * whenever that buffer would take more than half of the heap still free.
+ */
+public class Sorter {
+    /**
+     * Largest input {@link Engine#AUTO} insertion sorts; merge sort's recursion
+     * overhead pays off above 32 random keys
+     */
+    public static final int INSERTION_THRESHOLD = 32;
+    /**
+     * Radix sort's fixed cost, its counter tables and histogram, in keys merge
+     * sort gets through in the same time
+     */
+    public static final int RADIX_BASE_KEYS = 320;
+    /**
+     * Radix sort's cost per 11-bit pass, in the same unit: random keys (three
+     * passes) cross over near 900, keys one digit wide near 500
+     */
+    public static final int RADIX_KEYS_PER_PASS = 192;
+    /**
+     * Adjacent pairs sampled for presortedness
+     */
+    static final int SAMPLE_PAIRS = 32;
+    /**
+     * Scratch buffers below this many ints are assumed to fit; asking the
+     * runtime for free memory costs about 140ns
+     */
+    private static final int LARGE_SCRATCH = 1 << 18;
+
+    /**
+     * Algorithm used to sort; all engines produce the same result
+     */
+    public enum Engine {
+        /** Insertion sort, O(n^2) but fastest on tiny or sorted input */
+        INSERTION,
+        /** In-place three-way quicksort, O(log n) extra space */
+        QUICK,
+        /** Natural merge sort ({@link MergeSort.Strategy#NATURAL}), n ints of scratch unless presorted */
+        MERGE,
+        /** LSD radix sort, n ints of scratch */
+        RADIX,
+        /** Chosen per input, see {@link Sorter} */
+        AUTO
+    }
+
+    private final Metrics metrics;
+    private final Engine engine;
+    private final QuickSort quickSort;
+    private final MergeSort mergeSort;
+    private final RadixSort radixSort;
+
+    public Sorter(Metrics metrics) {
+        this(metrics, Engine.AUTO);
+    }
+
+    public Sorter(Metrics metrics, Engine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        this.metrics = metrics;
+        this.engine = engine;
+        this.quickSort = new QuickSort(metrics);
+        this.mergeSort = new MergeSort(metrics, MergeSort.Strategy.NATURAL);
+        this.radixSort = new RadixSort(metrics);
+    }
+
+    public void sort(int[] array) {
+        if (array == null || array.length <= 1) return;
+
+        switch (choose(array)) {
+            case INSERTION:
+                insertionSort(array);
+                break;
+            case QUICK:
+                quickSort.sort(array);
+                break;
+            case RADIX:
+                radixSort.sort(array);
+                break;
+            default:
+                mergeSort.sort(array);
+                break;
+        }
+    }
+
+    /**
+     * Engine that sorting array would run; for {@link Engine#AUTO} this reads
+     * the whole array once, for its value range, and samples it
+     */
+    public Engine choose(int[] array) {
+        if (engine != Engine.AUTO) return engine;
+
+        int n = array.length;
+        if (n <= INSERTION_THRESHOLD) return Engine.INSERTION;
+        if (n >= LARGE_SCRATCH && !scratchFits(n)) return Engine.QUICK;
+        if (isPresorted(array)) return Engine.MERGE;
+
+        int min = array[0];
+        int max = array[0];
+        for (int value : array) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        // Digits above the highest bit where min and max differ are shared by every key
+        int bits = Integer.SIZE - Integer.numberOfLeadingZeros(min ^ max);
+        int passes = Math.max(1, (bits + RadixSort.DEFAULT_DIGIT_BITS - 1) / RadixSort.DEFAULT_DIGIT_BITS);
+        return n >= RADIX_BASE_KEYS + passes * RADIX_KEYS_PER_PASS ? Engine.RADIX : Engine.MERGE;
+    }
+
+    /**
+     * Whether SAMPLE_PAIRS evenly spread neighbours all ascend or all descend;
+     * random input passes with probability 2^-31
+     */
+    private boolean isPresorted(int[] array) {
+        long step = (array.length - 1L) / SAMPLE_PAIRS;
+        int ascending = 0;
+        int descending = 0;
+        for (int s = 0; s < SAMPLE_PAIRS; s++) {
+            int i = (int) (s * step);
+            metrics.recordComparison();
+            if (array[i] <= array[i + 1]) ascending++;
+            if (array[i] >= array[i + 1]) descending++;
+        }
+        return ascending == SAMPLE_PAIRS || descending == SAMPLE_PAIRS;
+    }
+
+    /**
+     * Whether an n-int scratch buffer takes at most half of the heap that is still free
+     */
+    private static boolean scratchFits(int n) {
+        Runtime runtime = Runtime.getRuntime();
+        long free = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return (long) n * Integer.BYTES <= free / 2;
+    }
+
+    private void insertionSort(int[] array) {
+        for (int i = 1; i < array.length; i++) {
+            int key = array[i];
+            int j = i - 1;
+            while (j >= 0) {
+                metrics.recordComparison();
+                if (array[j] > key) {
+                    array[j + 1] = array[j];
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            array[j + 1] = key;
+        }
+    }
+}
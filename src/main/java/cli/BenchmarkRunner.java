@@ -1,8 +1,10 @@
 package cli;
 
 import algorithms.*;
+import metrics.CountingMetrics;
 import metrics.Metrics;
 import metrics.CSVWriter;
+import metrics.ProfilingMetrics;
 import util.Point;
 import util.ArrayUtils;
 
@@ -21,6 +23,7 @@ public class BenchmarkRunner {
             runSortingBenchmarks();
             runSelectBenchmarks();
             runClosestPairBenchmarks();
+            runLevelProfiles();
             System.out.println("All benchmarks completed!");
         } catch (IOException e) {
             System.err.println("Error running benchmarks: " + e.getMessage());
@@ -91,8 +94,39 @@ public class BenchmarkRunner {
         }
     }
 
+    private static void runLevelProfiles() throws IOException {
+        System.out.println("\n=== Per-Level Profiles ===");
+
+        try (CSVWriter csv = new CSVWriter("level_profile.csv")) {
+            csv.writeHeader(ProfilingMetrics.CSV_COLUMNS);
+
+            int size = 100000;
+            int[] array = generateRandomArray(size);
+
+            ProfilingMetrics profile = new ProfilingMetrics();
+            new MergeSort(profile).sort(array.clone());
+            profile.writeRows(csv, "MergeSort");
+
+            profile = new ProfilingMetrics();
+            new QuickSort(profile).sort(array.clone());
+            profile.writeRows(csv, "QuickSort");
+
+            profile = new ProfilingMetrics();
+            new DeterministicSelect(profile).select(array.clone(), size / 2);
+            profile.writeRows(csv, "Select");
+
+            // AUTO would send 10k points to the flat grid engine, which has no levels
+            profile = new ProfilingMetrics();
+            new ClosestPair(profile, ClosestPair.Engine.DIVIDE_AND_CONQUER)
+                    .findClosestPair(generateRandomPoints(10000, 1000));
+            profile.writeRows(csv, "ClosestPair");
+
+            System.out.println("Level profiles written to level_profile.csv");
+        }
+    }
+
     private static void benchmarkSortingAlgorithm(String name, int[] array, CSVWriter csv) throws IOException {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
 
         long startTime = System.nanoTime();
 
@@ -124,7 +158,7 @@ public class BenchmarkRunner {
     }
 
     private static void benchmarkSelectAlgorithm(int[] array, int k, CSVWriter csv) throws IOException {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         DeterministicSelect selector = new DeterministicSelect(metrics);
 
         long startTime = System.nanoTime();
@@ -150,7 +184,7 @@ public class BenchmarkRunner {
     }
 
     private static void benchmarkClosestPair(Point[] points, CSVWriter csv) throws IOException {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         ClosestPair closestPair = new ClosestPair(metrics);
 
         long startTime = System.nanoTime();
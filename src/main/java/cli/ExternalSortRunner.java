@@ -0,0 +1,78 @@
+package cli;
+
+import algorithms.ExternalMergeSort;
+import metrics.Metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Sorts a binary file of big-endian 32-bit keys with {@link ExternalMergeSort}
+ * and reports throughput. Usage:
+ * <pre>
+ * ExternalSortRunner &lt;input&gt; &lt;output&gt; [runLength] [--generate &lt;count&gt;]
+ * </pre>
+ * With --generate, input is first filled with count random keys.
+ */
+public class ExternalSortRunner {
+    private static final Random RANDOM = new Random(42);
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ExternalSortRunner <input> <output> [runLength] [--generate <count>]");
+            System.exit(1);
+        }
+        try {
+            Path input = Paths.get(args[0]);
+            Path output = Paths.get(args[1]);
+            int runLength = ExternalMergeSort.DEFAULT_RUN_LENGTH;
+            long generate = 0;
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--generate") && i + 1 < args.length) {
+                    generate = Long.parseLong(args[++i]);
+                } else {
+                    runLength = Integer.parseInt(args[i]);
+                }
+            }
+
+            if (generate > 0) {
+                long start = System.nanoTime();
+                generateInput(input, generate);
+                report("Generate", generate * Integer.BYTES, System.nanoTime() - start);
+            }
+
+            ExternalMergeSort sorter = new ExternalMergeSort(Metrics.noOp(), runLength, output.toAbsolutePath().getParent());
+            long start = System.nanoTime();
+            long count = sorter.sort(input, output);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("Sorted %d keys with runs of %d keys%n", count, runLength);
+            report("Sort", count * Integer.BYTES, elapsed);
+        } catch (IOException e) {
+            System.err.println("Error sorting file: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void generateInput(Path path, long count) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 20))) {
+            for (long i = 0; i < count; i++) {
+                out.writeInt(RANDOM.nextInt());
+            }
+        }
+    }
+
+    private static void report(String phase, long bytes, long nanos) {
+        double megabytes = bytes / (1024.0 * 1024.0);
+        double seconds = nanos / 1e9;
+        System.out.printf("%s - %.1f MB in %.2f s: %.1f MB/s%n", phase, megabytes, seconds, megabytes / seconds);
+    }
+}
@@ -0,0 +1,85 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics for sharing one instance across workers.
+ * Comparisons and allocations go to striped {@link LongAdder} counters, so
+ * threads do not contend on one cache line. Depth is tracked per thread and
+ * folded into a global maximum; fork/join tasks carry their parent's depth
+ * and install it with {@link #resumeDepth(int)}, so a task stolen by a
+ * joining worker does not stack on the joiner's depth.
+ */
+public class ConcurrentMetrics implements Metrics {
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private final ThreadLocal<int[]> currentDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public void recordComparison() {
+        comparisons.increment();
+    }
+
+    @Override
+    public void recordComparisons(long count) {
+        comparisons.add(count);
+    }
+
+    @Override
+    public void recordAllocation(long size) {
+        allocations.add(size);
+    }
+
+    @Override
+    public void recordDepth() {
+        int depth = ++currentDepth.get()[0];
+        // Only write the shared maximum when this thread actually exceeds it
+        if (depth > maxDepth.get()) {
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+    }
+
+    @Override
+    public void exitDepth() {
+        currentDepth.get()[0]--;
+    }
+
+    @Override
+    public int resumeDepth(int depth) {
+        int[] current = currentDepth.get();
+        int replaced = current[0];
+        current[0] = depth;
+        return replaced;
+    }
+
+    @Override
+    public long getComparisons() { return comparisons.sum(); }
+    @Override
+    public long getAllocations() { return allocations.sum(); }
+    @Override
+    public int getMaxDepth() { return maxDepth.get(); }
+
+    /**
+     * Depth of the calling thread
+     */
+    @Override
+    public int getCurrentDepth() { return currentDepth.get()[0]; }
+
+    /**
+     * Clears the totals and the calling thread's depth; call while no algorithm is running
+     */
+    @Override
+    public void reset() {
+        comparisons.reset();
+        allocations.reset();
+        maxDepth.set(0);
+        currentDepth.get()[0] = 0;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,75 @@
+package metrics;
+
+/**
+ * Counts every comparison, allocated slot and moved element exactly, using 64-bit counters.
+ * Not thread-safe.
+ */
+public class CountingMetrics implements Metrics {
+    private long comparisons;
+    private long allocations;
+    private long moves;
+    private int maxDepth;
+    private int currentDepth;
+
+    public CountingMetrics() {
+        reset();
+    }
+
+    @Override
+    public void recordComparison() {
+        comparisons++;
+    }
+
+    @Override
+    public void recordComparisons(long count) {
+        comparisons += count;
+    }
+
+    @Override
+    public void recordAllocation(long size) {
+        allocations += size;
+    }
+
+    @Override
+    public void recordMoves(long count) {
+        moves += count;
+    }
+
+    @Override
+    public void recordDepth() {
+        currentDepth++;
+        maxDepth = Math.max(maxDepth, currentDepth);
+    }
+
+    @Override
+    public void exitDepth() {
+        currentDepth--;
+    }
+
+    // Getters
+    @Override
+    public long getComparisons() { return comparisons; }
+    @Override
+    public long getAllocations() { return allocations; }
+    @Override
+    public long getMoves() { return moves; }
+    @Override
+    public int getMaxDepth() { return maxDepth; }
+    @Override
+    public int getCurrentDepth() { return currentDepth; }
+
+    @Override
+    public void reset() {
+        comparisons = 0;
+        allocations = 0;
+        moves = 0;
+        maxDepth = 0;
+        currentDepth = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Metrics{comparisons=%d, allocations=%d, maxDepth=%d}",
+                comparisons, allocations, maxDepth);
+    }
+}
@@ -1,7 +1,10 @@
 package metrics;
 
 /**
- * Auto-closable depth tracker for try-with-resources
+ * Auto-closable depth tracker for try-with-resources. Each use allocates a
+ * tracker that escape analysis does not reliably remove from recursive
+ * methods, so hot recursions pair {@link Metrics#recordDepth(int)} with
+ * {@link Metrics#exitDepth()} in try/finally instead.
  */
 public class DepthTracker implements AutoCloseable {
     private final Metrics metrics;
@@ -11,8 +14,16 @@ public class DepthTracker implements AutoCloseable {
         metrics.recordDepth();
     }
 
+    /**
+     * Enters a recursion level working on {@code subproblemSize} elements
+     */
+    public DepthTracker(Metrics metrics, int subproblemSize) {
+        this.metrics = metrics;
+        metrics.recordDepth(subproblemSize);
+    }
+
     @Override
     public void close() {
         metrics.exitDepth();
     }
-}
\ No newline at end of file
+}
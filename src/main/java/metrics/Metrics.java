@@ -1,51 +1,91 @@
 package metrics;
 
 /**
- * Tracks algorithm metrics: comparisons, allocations, recursion depth
+ * Tracks algorithm metrics: comparisons, allocations, recursion depth.
+ * Algorithms call these hooks from their inner loops, so pick the
+ * implementation by need: {@link CountingMetrics} counts everything exactly,
+ * at the price of an increment per hook, {@link SamplingMetrics} estimates
+ * the comparisons reported in bulk from a sample of the reports, and
+ * {@link #noOp()} compiles away entirely once the JIT inlines its empty
+ * methods. Only {@link ConcurrentMetrics} may be shared between threads.
  */
-public class Metrics {
-    private int comparisons;
-    private int allocations;
-    private int maxDepth;
-    private int currentDepth;
-
-    public Metrics() {
-        reset();
+public interface Metrics {
+
+    void recordComparison();
+
+    /**
+     * Records count comparisons at once, for loops that can tell from their
+     * indices how many they made; same totals as count calls of
+     * {@link #recordComparison()}
+     */
+    default void recordComparisons(long count) {
+        for (long c = 0; c < count; c++) {
+            recordComparison();
+        }
     }
 
-    public void recordComparison() {
-        comparisons++;
+    void recordAllocation(long size);
+
+    void recordDepth();
+
+    /**
+     * Enters a recursive call working on {@code subproblemSize} elements.
+     * Must be paired with {@link #exitDepth()}, see {@link DepthTracker}.
+     */
+    default void recordDepth(int subproblemSize) {
+        recordDepth();
     }
 
-    public void recordAllocation(int size) {
-        allocations += size;
+    void exitDepth();
+
+    /**
+     * Makes depth the calling thread's current depth and returns the depth it
+     * replaced, to be put back the same way once the caller is done. A
+     * fork/join worker waiting in join() runs stolen tasks on top of its own
+     * stack, so each task resumes its parent's depth with this. Only
+     * {@link ConcurrentMetrics} tracks depth per thread; elsewhere the depth
+     * is left as it is.
+     */
+    default int resumeDepth(int depth) {
+        return getCurrentDepth();
     }
 
-    public void recordDepth() {
-        currentDepth++;
-        maxDepth = Math.max(maxDepth, currentDepth);
+    /**
+     * Records count elements written by bulk data movement: merge output and
+     * copies into scratch. Only {@link CountingMetrics} keeps the total.
+     */
+    default void recordMoves(long count) {
     }
 
-    public void exitDepth() {
-        currentDepth--;
+    long getComparisons();
+
+    long getAllocations();
+
+    int getMaxDepth();
+
+    /**
+     * Elements moved so far, 0 where moves are not tracked
+     */
+    default long getMoves() {
+        return 0;
     }
 
-    // Getters
-    public int getComparisons() { return comparisons; }
-    public int getAllocations() { return allocations; }
-    public int getMaxDepth() { return maxDepth; }
-    public int getCurrentDepth() { return currentDepth; }
-
-    public void reset() {
-        comparisons = 0;
-        allocations = 0;
-        maxDepth = 0;
-        currentDepth = 0;
+    int getCurrentDepth();
+
+    void reset();
+
+    /**
+     * Copies the current totals; safe to call while an algorithm is running
+     * on implementations that are themselves thread-safe
+     */
+    default MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(getComparisons(), getAllocations(), getMaxDepth());
     }
 
-    @Override
-    public String toString() {
-        return String.format("Metrics{comparisons=%d, allocations=%d, maxDepth=%d}",
-                comparisons, allocations, maxDepth);
+    /**
+     * Shared instance that records nothing
+     */
+    static Metrics noOp() {
+        return NoOpMetrics.INSTANCE;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package metrics;
+
+/**
+ * Immutable point-in-time copy of the metric totals
+ */
+public final class MetricsSnapshot {
+    private final long comparisons;
+    private final long allocations;
+    private final int maxDepth;
+
+    public MetricsSnapshot(long comparisons, long allocations, int maxDepth) {
+        this.comparisons = comparisons;
+        this.allocations = allocations;
+        this.maxDepth = maxDepth;
+    }
+
+    public long getComparisons() { return comparisons; }
+    public long getAllocations() { return allocations; }
+    public int getMaxDepth() { return maxDepth; }
+
+    @Override
+    public String toString() {
+        return String.format("Metrics{comparisons=%d, allocations=%d, maxDepth=%d}",
+                comparisons, allocations, maxDepth);
+    }
+}
@@ -0,0 +1,60 @@
+package metrics;
+
+/**
+ * Metrics that record nothing. Every hook is an empty final method, so a
+ * call site that only ever sees this class is inlined to nothing by the JIT.
+ */
+public final class NoOpMetrics implements Metrics {
+    static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    @Override
+    public void recordComparison() {
+    }
+
+    @Override
+    public void recordComparisons(long count) {
+    }
+
+    @Override
+    public void recordAllocation(long size) {
+    }
+
+    @Override
+    public void recordDepth() {
+    }
+
+    @Override
+    public void recordDepth(int subproblemSize) {
+    }
+
+    @Override
+    public void exitDepth() {
+    }
+
+    @Override
+    public int resumeDepth(int depth) { return 0; }
+
+    @Override
+    public long getComparisons() { return 0; }
+
+    @Override
+    public long getAllocations() { return 0; }
+
+    @Override
+    public int getMaxDepth() { return 0; }
+
+    @Override
+    public int getCurrentDepth() { return 0; }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public String toString() {
+        return "Metrics{disabled}";
+    }
+}
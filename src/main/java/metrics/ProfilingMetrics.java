@@ -0,0 +1,158 @@
+package metrics;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Per-recursion-level profile: for every level it records the number of
+ * subproblems entered, their total size, the comparisons and allocations
+ * made while that level was innermost, and its self time (wall time spent
+ * at the level, excluding nested levels).
+ * Levels are delimited by {@link #recordDepth(int)} / {@link #exitDepth()},
+ * so every level entered must be exited, from a finally block or a {@link DepthTracker}.
+ * Not thread-safe.
+ */
+public class ProfilingMetrics implements Metrics {
+    public static final String[] CSV_COLUMNS =
+            {"Algorithm", "Level", "Subproblems", "TotalSize", "Comparisons", "Allocations", "SelfTime(ns)"};
+
+    private static final int INITIAL_LEVELS = 64;
+
+    private long[] subproblems;
+    private long[] totalSize;
+    private long[] comparisons;
+    private long[] allocations;
+    private long[] selfTime;
+
+    // Per active frame: entry time and time spent in nested frames
+    private long[] startTime;
+    private long[] childTime;
+
+    private int maxDepth;
+    private int currentDepth;
+
+    public ProfilingMetrics() {
+        reset();
+    }
+
+    @Override
+    public void recordComparison() {
+        comparisons[level()]++;
+    }
+
+    @Override
+    public void recordComparisons(long count) {
+        comparisons[level()] += count;
+    }
+
+    @Override
+    public void recordAllocation(long size) {
+        allocations[level()] += size;
+    }
+
+    @Override
+    public void recordDepth() {
+        recordDepth(0);
+    }
+
+    @Override
+    public void recordDepth(int subproblemSize) {
+        int level = currentDepth++;
+        if (level == subproblems.length) {
+            grow();
+        }
+        maxDepth = Math.max(maxDepth, currentDepth);
+
+        subproblems[level]++;
+        totalSize[level] += subproblemSize;
+        childTime[level] = 0;
+        startTime[level] = System.nanoTime();
+    }
+
+    @Override
+    public void exitDepth() {
+        if (currentDepth == 0) return;
+
+        int level = --currentDepth;
+        long elapsed = System.nanoTime() - startTime[level];
+        selfTime[level] += elapsed - childTime[level];
+        if (level > 0) {
+            childTime[level - 1] += elapsed;
+        }
+    }
+
+    // Work outside any level is attributed to the top level
+    private int level() {
+        return currentDepth == 0 ? 0 : currentDepth - 1;
+    }
+
+    private void grow() {
+        int capacity = subproblems.length * 2;
+        subproblems = Arrays.copyOf(subproblems, capacity);
+        totalSize = Arrays.copyOf(totalSize, capacity);
+        comparisons = Arrays.copyOf(comparisons, capacity);
+        allocations = Arrays.copyOf(allocations, capacity);
+        selfTime = Arrays.copyOf(selfTime, capacity);
+        startTime = Arrays.copyOf(startTime, capacity);
+        childTime = Arrays.copyOf(childTime, capacity);
+    }
+
+    @Override
+    public long getComparisons() { return sum(comparisons); }
+    @Override
+    public long getAllocations() { return sum(allocations); }
+    @Override
+    public int getMaxDepth() { return maxDepth; }
+    @Override
+    public int getCurrentDepth() { return currentDepth; }
+
+    /**
+     * Number of levels with recorded activity
+     */
+    public int getLevelCount() {
+        return Math.max(maxDepth, comparisons[0] > 0 || allocations[0] > 0 ? 1 : 0);
+    }
+
+    public long getSubproblems(int level) { return subproblems[level]; }
+    public long getTotalSize(int level) { return totalSize[level]; }
+    public long getComparisons(int level) { return comparisons[level]; }
+    public long getAllocations(int level) { return allocations[level]; }
+    public long getSelfTime(int level) { return selfTime[level]; }
+
+    /**
+     * Writes one row per level, in {@link #CSV_COLUMNS} order
+     */
+    public void writeRows(CSVWriter csv, String algorithm) throws IOException {
+        for (int level = 0; level < getLevelCount(); level++) {
+            csv.writeRow(algorithm, level, subproblems[level], totalSize[level],
+                    comparisons[level], allocations[level], selfTime[level]);
+        }
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Override
+    public void reset() {
+        subproblems = new long[INITIAL_LEVELS];
+        totalSize = new long[INITIAL_LEVELS];
+        comparisons = new long[INITIAL_LEVELS];
+        allocations = new long[INITIAL_LEVELS];
+        selfTime = new long[INITIAL_LEVELS];
+        startTime = new long[INITIAL_LEVELS];
+        childTime = new long[INITIAL_LEVELS];
+        maxDepth = 0;
+        currentDepth = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Metrics{comparisons=%d, allocations=%d, maxDepth=%d, levels=%d}",
+                getComparisons(), getAllocations(), maxDepth, getLevelCount());
+    }
+}
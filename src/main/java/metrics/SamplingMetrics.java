@@ -0,0 +1,107 @@
+package metrics;
+
+/**
+ * Estimates comparisons by sampling bulk reports instead of single calls.
+ * Comparisons recorded one at a time are counted exactly. A bulk report of
+ * at least {@code threshold} comparisons is counted exactly too; a smaller
+ * one is kept with probability count / threshold and then counts as
+ * threshold, so the estimate is unbiased and its error is dominated by the
+ * many small reports (insertion-sort leaves and low merges), not by the few
+ * large ones. The keep-or-drop decision is made once per report, that is
+ * once per merge or leaf, never per comparison. Allocations and depth are
+ * counted exactly. Not thread-safe.
+ */
+public class SamplingMetrics implements Metrics {
+    public static final int DEFAULT_THRESHOLD = 1024;
+    private static final int SEED = 0x9E3779B9;
+
+    private final int threshold;
+    private int random;
+    private long comparisons;
+    private long allocations;
+    private int maxDepth;
+    private int currentDepth;
+
+    public SamplingMetrics() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold bulk reports of at least this many comparisons are never dropped
+     */
+    public SamplingMetrics(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Sampling threshold must be positive");
+        }
+        this.threshold = threshold;
+        reset();
+    }
+
+    @Override
+    public void recordComparison() {
+        comparisons++;
+    }
+
+    @Override
+    public void recordComparisons(long count) {
+        if (count >= threshold) {
+            comparisons += count;
+            return;
+        }
+        // Xorshift: uniform in [0, 2^32), kept when below count / threshold of the range
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        if ((random & 0xFFFFFFFFL) * threshold < count << Integer.SIZE) {
+            comparisons += threshold;
+        }
+    }
+
+    @Override
+    public void recordAllocation(long size) {
+        allocations += size;
+    }
+
+    @Override
+    public void recordDepth() {
+        currentDepth++;
+        maxDepth = Math.max(maxDepth, currentDepth);
+    }
+
+    @Override
+    public void exitDepth() {
+        currentDepth--;
+    }
+
+    /**
+     * Estimated comparisons: exact for single calls and large reports, sampled for small reports
+     */
+    @Override
+    public long getComparisons() { return comparisons; }
+    @Override
+    public long getAllocations() { return allocations; }
+    @Override
+    public int getMaxDepth() { return maxDepth; }
+    @Override
+    public int getCurrentDepth() { return currentDepth; }
+
+    public int getThreshold() { return threshold; }
+
+    /**
+     * Clears the counters and restarts the same sample sequence
+     */
+    @Override
+    public void reset() {
+        random = SEED;
+        comparisons = 0;
+        allocations = 0;
+        maxDepth = 0;
+        currentDepth = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Metrics{comparisons~%d, allocations=%d, maxDepth=%d, threshold=%d}",
+                comparisons, allocations, maxDepth, threshold);
+    }
+}
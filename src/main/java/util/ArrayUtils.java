@@ -1,5 +1,7 @@
 package util;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.Random;
 
 /**
@@ -21,6 +23,24 @@ public class ArrayUtils {
         array[j] = temp;
     }
 
+    public static void swap(IntBuffer buffer, int i, int j) {
+        int temp = buffer.get(i);
+        buffer.put(i, buffer.get(j));
+        buffer.put(j, temp);
+    }
+
+    /**
+     * Int view of the remaining bytes, in the buffer's byte order; index 0 is the
+     * buffer's position. Native order makes every access a plain load or store.
+     */
+    public static IntBuffer intView(ByteBuffer buffer) {
+        if (buffer.remaining() % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("Remaining bytes must be a multiple of " + Integer.BYTES);
+        }
+        // slice() resets the byte order to big-endian
+        return buffer.slice().order(buffer.order()).asIntBuffer();
+    }
+
     public static boolean isSorted(int[] array) {
         for (int i = 1; i < array.length; i++) {
             if (array[i] < array[i - 1]) {
@@ -30,6 +50,18 @@ public class ArrayUtils {
         return true;
     }
 
+    /**
+     * Checks the remaining elements, without moving the position
+     */
+    public static boolean isSorted(IntBuffer buffer) {
+        for (int i = buffer.position() + 1; i < buffer.limit(); i++) {
+            if (buffer.get(i) < buffer.get(i - 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static int[] generateRandomArray(int size) {
         Random random = new Random();
         int[] array = new int[size];
@@ -0,0 +1,92 @@
+package util;
+
+/**
+ * Points of any dimension stored in one flat array: coordinate a of point i
+ * is at {@code coords[i * dimension + a]}. Like {@link PointSet}, points are
+ * identified by index and carry no per-point objects.
+ */
+public class FlatPointSet {
+    private final double[] coords;
+    private final int dimension;
+
+    /**
+     * Wraps the given array without copying it
+     */
+    public FlatPointSet(double[] coords, int dimension) {
+        if (coords == null) {
+            throw new IllegalArgumentException("Coordinate array cannot be null");
+        }
+        if (dimension < 1) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        if (coords.length % dimension != 0) {
+            throw new IllegalArgumentException("Coordinate array length must be a multiple of the dimension");
+        }
+        this.coords = coords;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Interleaves the coordinates of a 2D point set
+     */
+    public static FlatPointSet of(PointSet points) {
+        int n = points.size();
+        double[] coords = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            coords[2 * i] = points.x(i);
+            coords[2 * i + 1] = points.y(i);
+        }
+        return new FlatPointSet(coords, 2);
+    }
+
+    /**
+     * Copies a 2D set into separate coordinate arrays
+     */
+    public PointSet toPointSet() {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Only 2D points convert to a PointSet");
+        }
+        int n = size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = coords[2 * i];
+            ys[i] = coords[2 * i + 1];
+        }
+        return new PointSet(xs, ys);
+    }
+
+    public int size() {
+        return coords.length / dimension;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public double coord(int i, int axis) {
+        return coords[i * dimension + axis];
+    }
+
+    /**
+     * Backing coordinates, not a copy
+     */
+    public double[] coords() {
+        return coords;
+    }
+
+    public double distanceSquared(int i, int j) {
+        int a = i * dimension;
+        int b = j * dimension;
+        double sum = 0;
+        for (int axis = 0; axis < dimension; axis++) {
+            double d = coords[a + axis] - coords[b + axis];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    public double distance(int i, int j) {
+        return Math.sqrt(distanceSquared(i, j));
+    }
+}
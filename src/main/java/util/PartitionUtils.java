@@ -1,22 +1,56 @@
 package util;
 
 import metrics.Metrics;
-import java.util.Random;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Utility methods for partitioning arrays (used in QuickSort and Select)
  */
 public class PartitionUtils {
 
+    /**
+     * Partitioning strategies selectable by the sorting algorithms
+     */
+    public enum Scheme {
+        /** Single random pivot; every element <= pivot is swapped left */
+        LOMUTO,
+        /** Dutch-national-flag split into < pivot, == pivot, > pivot */
+        THREE_WAY,
+        /** Yaroslavskiy split around two random pivots p <= q */
+        DUAL_PIVOT
+    }
+
     /**
      * Partitions array around a random pivot
      * @return final position of the pivot
      */
     public static int partition(int[] array, int left, int right, Metrics metrics) {
         // Randomized pivot selection
-        int pivotIndex = left + new Random().nextInt(right - left + 1);
+        int pivotIndex = ThreadLocalRandom.current().nextInt(left, right + 1);
         ArrayUtils.swap(array, pivotIndex, right);
+        return partitionAroundLast(array, left, right, metrics);
+    }
 
+    /**
+     * Partitions array around given pivot value, which must occur in array[left..right]
+     * @return final position of the pivot
+     */
+    public static int partitionAroundPivot(int[] array, int left, int right, int pivot, Metrics metrics) {
+        // Find pivot index and move to end
+        for (int i = left; i <= right; i++) {
+            if (array[i] == pivot) {
+                ArrayUtils.swap(array, i, right);
+                break;
+            }
+        }
+
+        return partitionAroundLast(array, left, right, metrics);
+    }
+
+    // Lomuto partition around array[right]
+    private static int partitionAroundLast(int[] array, int left, int right, Metrics metrics) {
         int pivot = array[right];
         int i = left - 1;
 
@@ -33,17 +67,135 @@ public class PartitionUtils {
     }
 
     /**
-     * Partitions array around given pivot value
+     * Three-way (Dutch national flag) partition around a random pivot
+     * @return band of elements equal to the pivot, see {@link #bandStart} and {@link #bandEnd}
      */
-    public static int partitionAroundPivot(int[] array, int left, int right, int pivot, Metrics metrics) {
-        // Find pivot index and move to end
-        for (int i = left; i <= right; i++) {
-            if (array[i] == pivot) {
-                ArrayUtils.swap(array, i, right);
-                break;
+    public static long partitionThreeWay(int[] array, int left, int right, Metrics metrics) {
+        int pivot = array[ThreadLocalRandom.current().nextInt(left, right + 1)];
+        return partitionThreeWay(array, left, right, pivot, metrics);
+    }
+
+    /**
+     * Three-way partition around the given pivot value: afterwards array[left..lt-1] < pivot,
+     * array[lt..gt] == pivot and array[gt+1..right] > pivot.
+     * The band is empty (lt == gt + 1) if the pivot does not occur in the range.
+     * @return lt and gt packed into one long, see {@link #bandStart} and {@link #bandEnd}
+     */
+    public static long partitionThreeWay(int[] array, int left, int right, int pivot, Metrics metrics) {
+        int lt = left;
+        int i = left;
+        int gt = right;
+
+        while (i <= gt) {
+            metrics.recordComparison();
+            int value = array[i];
+            if (value < pivot) {
+                ArrayUtils.swap(array, lt++, i++);
+            } else if (value > pivot) {
+                ArrayUtils.swap(array, i, gt--);
+            } else {
+                i++;
             }
         }
+        return band(lt, gt);
+    }
+
+    /**
+     * {@link #partitionThreeWay(int[], int, int, Metrics)} over absolute indices of a buffer
+     */
+    public static long partitionThreeWay(IntBuffer buffer, int left, int right, Metrics metrics) {
+        int pivot = buffer.get(ThreadLocalRandom.current().nextInt(left, right + 1));
+        return partitionThreeWay(buffer, left, right, pivot, metrics);
+    }
+
+    /**
+     * {@link #partitionThreeWay(int[], int, int, int, Metrics)} over absolute indices of a buffer
+     */
+    public static long partitionThreeWay(IntBuffer buffer, int left, int right, int pivot, Metrics metrics) {
+        int lt = left;
+        int i = left;
+        int gt = right;
+
+        while (i <= gt) {
+            metrics.recordComparison();
+            int value = buffer.get(i);
+            if (value < pivot) {
+                ArrayUtils.swap(buffer, lt++, i++);
+            } else if (value > pivot) {
+                ArrayUtils.swap(buffer, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return band(lt, gt);
+    }
+
+    /**
+     * Yaroslavskiy dual-pivot partition around two random pivots p <= q.
+     * Afterwards p sits at lp and q at gp, array[left..lp-1] < p,
+     * p <= array[lp+1..gp-1] <= q and array[gp+1..right] > q.
+     * Requires right > left.
+     * @return lp and gp packed into one long, see {@link #bandStart} and {@link #bandEnd}
+     */
+    public static long partitionDualPivot(int[] array, int left, int right, Metrics metrics) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ArrayUtils.swap(array, left, random.nextInt(left, right + 1));
+        ArrayUtils.swap(array, right, random.nextInt(left + 1, right + 1));
+
+        metrics.recordComparison();
+        if (array[left] > array[right]) {
+            ArrayUtils.swap(array, left, right);
+        }
+        int p = array[left];
+        int q = array[right];
+
+        int lt = left + 1;
+        int gt = right - 1;
+        int k = lt;
+        while (k <= gt) {
+            metrics.recordComparison();
+            if (array[k] < p) {
+                ArrayUtils.swap(array, k, lt++);
+            } else {
+                metrics.recordComparison();
+                if (array[k] > q) {
+                    while (k < gt && array[gt] > q) {
+                        metrics.recordComparison();
+                        gt--;
+                    }
+                    ArrayUtils.swap(array, k, gt--);
+                    metrics.recordComparison();
+                    if (array[k] < p) {
+                        ArrayUtils.swap(array, k, lt++);
+                    }
+                }
+            }
+            k++;
+        }
+
+        lt--;
+        gt++;
+        ArrayUtils.swap(array, left, lt);
+        ArrayUtils.swap(array, right, gt);
+        return band(lt, gt);
+    }
+
+    /**
+     * First index of a band returned by the three-way and dual-pivot partitions
+     */
+    public static int bandStart(long band) {
+        return (int) (band >>> 32);
+    }
+
+    /**
+     * Last index of a band returned by the three-way and dual-pivot partitions
+     */
+    public static int bandEnd(long band) {
+        return (int) band;
+    }
 
-        return partition(array, left, right, metrics);
+    // Two indices packed into a long keep the partition calls allocation-free
+    private static long band(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFFFFFFL);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package util;
+
+/**
+ * 2D points stored as parallel coordinate arrays (structure of arrays).
+ * Points are identified by their index, so large sets carry no per-point
+ * object headers and hot loops read plain doubles.
+ */
+public class PointSet {
+    private final double[] xs;
+    private final double[] ys;
+
+    /**
+     * Wraps the given arrays without copying them
+     */
+    public PointSet(double[] xs, double[] ys) {
+        if (xs == null || ys == null) {
+            throw new IllegalArgumentException("Coordinate arrays cannot be null");
+        }
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length");
+        }
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    /**
+     * Copies the coordinates of the given points; index i corresponds to points[i]
+     */
+    public static PointSet of(Point[] points) {
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].x;
+            ys[i] = points[i].y;
+        }
+        return new PointSet(xs, ys);
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    public double x(int i) {
+        return xs[i];
+    }
+
+    public double y(int i) {
+        return ys[i];
+    }
+
+    /**
+     * Backing x coordinates, not a copy
+     */
+    public double[] xs() {
+        return xs;
+    }
+
+    /**
+     * Backing y coordinates, not a copy
+     */
+    public double[] ys() {
+        return ys;
+    }
+
+    public double distanceSquared(int i, int j) {
+        double dx = xs[i] - xs[j];
+        double dy = ys[i] - ys[j];
+        return dx * dx + dy * dy;
+    }
+
+    public double distance(int i, int j) {
+        return Math.sqrt(distanceSquared(i, j));
+    }
+
+    public Point toPoint(int i) {
+        return new Point(xs[i], ys[i]);
+    }
+}
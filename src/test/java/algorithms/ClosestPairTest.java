@@ -1,7 +1,9 @@
 package algorithms;
 
+import metrics.CountingMetrics;
 import metrics.Metrics;
 import util.Point;
+import util.PointSet;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.Arrays;
@@ -10,7 +12,7 @@ class ClosestPairTest {
 
     @Test
     void testClosestPairSimple() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         ClosestPair closestPair = new ClosestPair(metrics);
 
         Point[] points = {
@@ -31,7 +33,7 @@ class ClosestPairTest {
 
     @Test
     void testClosestPairHorizontalLine() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         ClosestPair closestPair = new ClosestPair(metrics);
 
         Point[] points = {
@@ -53,7 +55,7 @@ class ClosestPairTest {
         Point[] points = generateRandomPoints(20, 100);
 
         // Test with our algorithm
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         ClosestPair closestPair = new ClosestPair(metrics);
         Point[] result = closestPair.findClosestPair(points);
         double ourDistance = result[0].distanceTo(result[1]);
@@ -67,7 +69,7 @@ class ClosestPairTest {
 
     @Test
     void testClosestPairLargeDataset() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         ClosestPair closestPair = new ClosestPair(metrics);
 
         // Use smaller dataset to avoid potential stack overflow
@@ -90,7 +92,7 @@ class ClosestPairTest {
 
     @Test
     void testClosestPairInvalidInput() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         ClosestPair closestPair = new ClosestPair(metrics);
 
         // Single point
@@ -102,6 +104,141 @@ class ClosestPairTest {
                 () -> closestPair.findClosestPair(null));
     }
 
+    @Test
+    void testClosestPairMatchesBruteForceOnManyInputs() {
+        ClosestPair closestPair = new ClosestPair(new CountingMetrics());
+        for (int trial = 0; trial < 20; trial++) {
+            Point[] points = generateRandomPoints(500 + trial * 50, 1000);
+
+            Point[] result = closestPair.findClosestPair(points);
+            Point[] expected = bruteForceClosestPair(points);
+
+            assertEquals(expected[0].distanceTo(expected[1]), result[0].distanceTo(result[1]), 1e-9);
+        }
+    }
+
+    @Test
+    void testClosestPairDegenerateInputs() {
+        ClosestPair closestPair = new ClosestPair(new CountingMetrics());
+
+        // All points on one vertical line: every point lands in the strip
+        Point[] vertical = new Point[200];
+        for (int i = 0; i < vertical.length; i++) {
+            vertical[i] = new Point(5, i * 3 + (i == 100 ? 1.5 : 0));
+        }
+        Point[] result = closestPair.findClosestPair(vertical);
+        assertEquals(1.5, result[0].distanceTo(result[1]), 1e-9);
+
+        // Duplicate points have distance zero
+        Point[] duplicates = generateRandomPoints(300, 1000);
+        duplicates[250] = duplicates[17];
+        result = closestPair.findClosestPair(duplicates);
+        assertEquals(0.0, result[0].distanceTo(result[1]), 1e-12);
+    }
+
+    @Test
+    void testClosestPairAllocatesOnlyUpFront() {
+        Metrics metrics = new CountingMetrics();
+        ClosestPair closestPair = new ClosestPair(metrics);
+        Point[] points = generateRandomPoints(4096, 1000);
+
+        closestPair.findClosestPair(points);
+
+        // One x-sorted copy plus one scratch buffer, nothing per level
+        assertEquals(2L * points.length, metrics.getAllocations());
+        assertTrue(metrics.getMaxDepth() <= 12, "Depth should be ~log2(n)");
+    }
+
+    @Test
+    void testClosestPairIndicesOnPointSet() {
+        ClosestPair closestPair = new ClosestPair(new CountingMetrics());
+        Point[] points = generateRandomPoints(1000, 1000);
+        PointSet set = PointSet.of(points);
+
+        int[] pair = closestPair.findClosestPairIndices(set);
+        Point[] expected = bruteForceClosestPair(points);
+
+        assertEquals(2, pair.length);
+        assertTrue(pair[0] < pair[1]);
+        assertEquals(expected[0].distanceTo(expected[1]), set.distance(pair[0], pair[1]), 1e-9);
+
+        // The Point[] entry point returns the caller's own objects
+        Point[] result = closestPair.findClosestPair(points);
+        assertTrue(result[0] == points[pair[0]] || result[0] == points[pair[1]]);
+        assertTrue(result[1] == points[pair[0]] || result[1] == points[pair[1]]);
+    }
+
+    @Test
+    void testClosestPairIndicesInvalidInput() {
+        ClosestPair closestPair = new ClosestPair(new CountingMetrics());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> closestPair.findClosestPairIndices(new PointSet(new double[]{1}, new double[]{2})));
+        assertThrows(IllegalArgumentException.class,
+                () -> closestPair.findClosestPairIndices(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PointSet(new double[2], new double[3]));
+    }
+
+    @Test
+    void testKClosestPairsMatchBruteForce() {
+        ClosestPair closestPair = new ClosestPair(new CountingMetrics());
+        PointSet points = PointSet.of(generateRandomPoints(400, 1000));
+        int n = points.size();
+
+        double[] all = new double[n * (n - 1) / 2];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                all[count++] = points.distanceSquared(i, j);
+            }
+        }
+        Arrays.sort(all);
+
+        for (int k : new int[]{1, 7, 100, 5000}) {
+            int[] pairs = closestPair.findKClosestPairs(points, k);
+            assertEquals(2 * k, pairs.length);
+            for (int p = 0; p < k; p++) {
+                assertTrue(pairs[2 * p] < pairs[2 * p + 1]);
+                assertEquals(all[p], points.distanceSquared(pairs[2 * p], pairs[2 * p + 1]));
+            }
+        }
+
+        // More pairs requested than exist
+        PointSet three = new PointSet(new double[]{0, 1, 3}, new double[]{0, 0, 0});
+        assertArrayEquals(new int[]{0, 1, 1, 2, 0, 2}, closestPair.findKClosestPairs(three, 10));
+    }
+
+    @Test
+    void testAllNearestNeighborsMatchBruteForce() {
+        ClosestPair closestPair = new ClosestPair(new CountingMetrics());
+        Point[] raw = generateRandomPoints(2000, 1000);
+        raw[1500] = new Point(raw[3].x, raw[3].y);
+        PointSet points = PointSet.of(raw);
+
+        int[] nearest = closestPair.allNearestNeighbors(points);
+
+        for (int i = 0; i < points.size(); i++) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < points.size(); j++) {
+                if (j != i) best = Math.min(best, points.distanceSquared(i, j));
+            }
+            assertNotEquals(i, nearest[i]);
+            assertEquals(best, points.distanceSquared(i, nearest[i]), "Point " + i);
+        }
+    }
+
+    @Test
+    void testQueriesInvalidInput() {
+        ClosestPair closestPair = new ClosestPair(new CountingMetrics());
+        PointSet points = PointSet.of(generateRandomPoints(10, 10));
+
+        assertThrows(IllegalArgumentException.class, () -> closestPair.findKClosestPairs(points, 0));
+        assertThrows(IllegalArgumentException.class, () -> closestPair.findKClosestPairs(null, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> closestPair.allNearestNeighbors(new PointSet(new double[1], new double[1])));
+    }
+
     // Helper methods
     private Point[] generateRandomPoints(int count, int maxCoord) {
         Point[] points = new Point[count];
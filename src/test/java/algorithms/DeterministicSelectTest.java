@@ -1,15 +1,20 @@
 package algorithms;
 
+import metrics.CountingMetrics;
 import metrics.Metrics;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.Arrays;
+import java.util.Random;
 
 class DeterministicSelectTest {
 
     @Test
     void testSelectKthSmallest() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         DeterministicSelect selector = new DeterministicSelect(metrics);
         int[] array = {5, 2, 8, 1, 9, 3, 7, 4, 6};
 
@@ -23,7 +28,7 @@ class DeterministicSelectTest {
 
     @Test
     void testSelectComparedWithSorting() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         DeterministicSelect selector = new DeterministicSelect(metrics);
 
         // Test on multiple random arrays
@@ -44,7 +49,7 @@ class DeterministicSelectTest {
 
     @Test
     void testSelectEdgeCases() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         DeterministicSelect selector = new DeterministicSelect(metrics);
 
         // Single element
@@ -63,7 +68,7 @@ class DeterministicSelectTest {
 
     @Test
     void testSelectInvalidInput() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         DeterministicSelect selector = new DeterministicSelect(metrics);
 
         // Empty array
@@ -75,6 +80,149 @@ class DeterministicSelectTest {
         assertThrows(IllegalArgumentException.class, () -> selector.select(array, 3));
     }
 
+    @Test
+    void testSelectFewDistinctValues() {
+        Metrics metrics = new CountingMetrics();
+        DeterministicSelect selector = new DeterministicSelect(metrics);
+        int[] array = new int[10_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (i * 7919) % 20;
+        }
+        int[] sorted = array.clone();
+        Arrays.sort(sorted);
+
+        for (int k = 0; k < array.length; k += 997) {
+            assertEquals(sorted[k], selector.select(array.clone(), k), "k=" + k);
+        }
+    }
+
+    @Test
+    void testAllStrategiesOnStructuredInputs() {
+        int n = 5000;
+        int[][] inputs = new int[4][n];
+        for (int i = 0; i < n; i++) {
+            inputs[0][i] = i;                          // sorted
+            inputs[1][i] = n - i;                      // reversed
+            inputs[2][i] = i < n / 2 ? i : n - i;      // organ pipe
+            inputs[3][i] = (int) (Math.random() * 50); // few distinct
+        }
+
+        for (DeterministicSelect.Strategy strategy : DeterministicSelect.Strategy.values()) {
+            DeterministicSelect selector = new DeterministicSelect(new CountingMetrics(), strategy);
+            for (int[] input : inputs) {
+                int[] sorted = input.clone();
+                Arrays.sort(sorted);
+                for (int k = 0; k < n; k += 499) {
+                    int[] array = input.clone();
+                    assertEquals(sorted[k], selector.select(array, k), strategy + " k=" + k);
+                    assertEquals(sorted[k], array[k], "Result should be left at index k");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFloydRivestComparisonCount() {
+        int n = 100_000;
+        int[] input = generateRandomArray(n);
+        int[] sorted = input.clone();
+        Arrays.sort(sorted);
+        CountingMetrics floydRivest = new CountingMetrics();
+        CountingMetrics medianOfMedians = new CountingMetrics();
+
+        // Strategy chosen per call on an instance configured for Median-of-Medians
+        DeterministicSelect selector = new DeterministicSelect(floydRivest, DeterministicSelect.Strategy.MEDIAN_OF_MEDIANS);
+        assertEquals(sorted[n / 2], selector.select(input.clone(), n / 2, DeterministicSelect.Strategy.FLOYD_RIVEST));
+        new DeterministicSelect(medianOfMedians, DeterministicSelect.Strategy.MEDIAN_OF_MEDIANS).select(input.clone(), n / 2);
+
+        // About 1.5n expected for the median; Median-of-Medians needs several times that
+        assertTrue(floydRivest.getComparisons() < 2L * n, "Comparisons " + floydRivest.getComparisons());
+        assertTrue(floydRivest.getComparisons() * 3 < medianOfMedians.getComparisons());
+        assertThrows(IllegalArgumentException.class, () -> selector.select(input.clone(), 0, null));
+    }
+
+    @Test
+    void testSelectDoesNotAllocate() {
+        for (DeterministicSelect.Strategy strategy : DeterministicSelect.Strategy.values()) {
+            Metrics metrics = new CountingMetrics();
+            DeterministicSelect selector = new DeterministicSelect(metrics, strategy);
+
+            selector.select(generateRandomArray(5000), 2500);
+
+            assertEquals(0, metrics.getAllocations(), strategy.toString());
+            assertTrue(metrics.getMaxDepth() <= 40, "Depth " + metrics.getMaxDepth());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new DeterministicSelect(new CountingMetrics(), null));
+    }
+
+    @Test
+    void testMultiSelectMatchesSorting() {
+        Random random = new Random(12);
+        for (DeterministicSelect.Strategy strategy : DeterministicSelect.Strategy.values()) {
+            DeterministicSelect selector = new DeterministicSelect(new CountingMetrics(), strategy);
+            for (int trial = 0; trial < 10; trial++) {
+                int n = 1 + random.nextInt(20_000);
+                int[] array = trial % 3 == 0 ? random.ints(n, 0, 30).toArray() : random.ints(n).toArray();
+                int[] ranks = random.ints(1 + random.nextInt(200), 0, n).toArray();
+                int[] sorted = array.clone();
+                Arrays.sort(sorted);
+
+                int[] result = selector.multiSelect(array, ranks);
+
+                for (int i = 0; i < ranks.length; i++) {
+                    assertEquals(sorted[ranks[i]], result[i], strategy + " rank " + ranks[i]);
+                    assertEquals(sorted[ranks[i]], array[ranks[i]]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMultiSelectPercentilesAndEdgeCases() {
+        DeterministicSelect selector = new DeterministicSelect(new CountingMetrics());
+        int[] latencies = new int[1000];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = 1000 - i;
+        }
+
+        // p50, p90, p99, duplicates and unsorted rank order
+        int[] result = selector.multiSelect(latencies, new int[]{990, 499, 899, 499, 0});
+        assertArrayEquals(new int[]{991, 500, 900, 500, 1}, result);
+
+        assertEquals(0, selector.multiSelect(new int[]{3, 1}, new int[0]).length);
+        assertThrows(IllegalArgumentException.class, () -> selector.multiSelect(new int[]{1, 2}, new int[]{2}));
+        assertThrows(IllegalArgumentException.class, () -> selector.multiSelect(new int[]{1, 2}, null));
+        assertThrows(IllegalArgumentException.class, () -> selector.multiSelect(new int[0], new int[]{0}));
+    }
+
+    @Test
+    void testSelectOverBuffers() {
+        int[] values = generateRandomArray(20_000);
+        int[] sorted = Arrays.copyOfRange(values, 1000, 19_000);
+        Arrays.sort(sorted);
+
+        for (DeterministicSelect.Strategy strategy : DeterministicSelect.Strategy.values()) {
+            DeterministicSelect selector = new DeterministicSelect(new CountingMetrics(), strategy);
+            for (int k : new int[]{0, 4_321, 9_000, 17_999}) {
+                // k counts from the position; the result is left at position + k
+                IntBuffer heap = IntBuffer.wrap(values.clone());
+                heap.position(1000).limit(19_000);
+                assertEquals(sorted[k], selector.select(heap, k), strategy + " k=" + k);
+                assertEquals(sorted[k], heap.get(1000 + k));
+                assertEquals(1000, heap.position());
+
+                ByteBuffer direct = ByteBuffer.allocateDirect(18_000 * Integer.BYTES).order(ByteOrder.nativeOrder());
+                direct.asIntBuffer().put(values, 1000, 18_000);
+                assertEquals(sorted[k], selector.select(direct, k), strategy + " k=" + k);
+            }
+        }
+
+        DeterministicSelect selector = new DeterministicSelect(new CountingMetrics());
+        assertThrows(IllegalArgumentException.class, () -> selector.select(IntBuffer.allocate(0), 0));
+        assertThrows(IllegalArgumentException.class, () -> selector.select(IntBuffer.allocate(3), 3));
+        assertThrows(IllegalArgumentException.class, () -> selector.select(ByteBuffer.allocate(7), 0));
+    }
+
     private int[] generateRandomArray(int size) {
         int[] array = new int[size];
         for (int i = 0; i < size; i++) {
@@ -82,4 +230,4 @@ class DeterministicSelectTest {
         }
         return array;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package algorithms;
+
+import metrics.CountingMetrics;
+import metrics.Metrics;
+import util.PointSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+class DynamicClosestPairTest {
+
+    @Test
+    void testSingleInsertsMatchStaticAfterEveryStep() {
+        DynamicClosestPair dynamic = new DynamicClosestPair(new CountingMetrics());
+        ClosestPair oracle = new ClosestPair(new CountingMetrics(), ClosestPair.Engine.DIVIDE_AND_CONQUER);
+        Random random = new Random(4);
+        int n = 600;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextDouble() * 1000;
+            ys[i] = random.nextDouble() * 1000;
+            assertEquals(i, dynamic.add(xs[i], ys[i]));
+            if (i < 1) continue;
+
+            PointSet prefix = new PointSet(Arrays.copyOf(xs, i + 1), Arrays.copyOf(ys, i + 1));
+            int[] expected = oracle.findClosestPairIndices(prefix);
+            assertEquals(prefix.distance(expected[0], expected[1]), dynamic.closestDistance(), 1e-12);
+        }
+    }
+
+    @Test
+    void testBatchesMatchStatic() {
+        Random random = new Random(6);
+        PointSet initial = randomPoints(random, 5000);
+        DynamicClosestPair dynamic = new DynamicClosestPair(new CountingMetrics(), initial);
+        ClosestPair oracle = new ClosestPair(new CountingMetrics());
+
+        double[] allXs = initial.xs().clone();
+        double[] allYs = initial.ys().clone();
+        for (int batch = 0; batch < 10; batch++) {
+            PointSet points = randomPoints(random, 100 + batch * 300);
+            dynamic.addAll(points);
+
+            allXs = concat(allXs, points.xs());
+            allYs = concat(allYs, points.ys());
+            PointSet all = new PointSet(allXs, allYs);
+            int[] expected = oracle.findClosestPairIndices(all);
+            int[] actual = dynamic.closestPairIndices();
+
+            assertEquals(all.size(), dynamic.size());
+            assertTrue(actual[0] < actual[1]);
+            assertEquals(all.distanceSquared(expected[0], expected[1]), all.distanceSquared(actual[0], actual[1]));
+        }
+    }
+
+    @Test
+    void testShrinkingDistancesAndDuplicates() {
+        DynamicClosestPair dynamic = new DynamicClosestPair(new CountingMetrics());
+        dynamic.add(0, 0);
+        dynamic.add(1024, 0);
+
+        // Every insert halves the closest distance
+        for (int i = 9; i >= 0; i--) {
+            dynamic.add(1 << i, 0);
+            assertEquals(1 << i, dynamic.closestDistance(), 0.0);
+        }
+
+        dynamic.add(512, 0);
+        assertEquals(0.0, dynamic.closestDistance());
+        dynamic.add(3, 3);
+        assertEquals(0.0, dynamic.closestDistance());
+    }
+
+    @Test
+    void testInsertCostStaysConstant() {
+        Metrics metrics = new CountingMetrics();
+        DynamicClosestPair dynamic = new DynamicClosestPair(metrics);
+        Random random = new Random(2);
+        int n = 50_000;
+
+        for (int i = 0; i < n; i++) {
+            dynamic.add(random.nextDouble() * 1000, random.nextDouble() * 1000);
+        }
+
+        // Cells hold a bounded number of points, nine cells per insertion
+        assertTrue(metrics.getComparisons() <= 100L * n, "Comparisons: " + metrics.getComparisons());
+    }
+
+    @Test
+    void testInvalidInput() {
+        DynamicClosestPair dynamic = new DynamicClosestPair(new CountingMetrics());
+
+        assertThrows(IllegalStateException.class, dynamic::closestPairIndices);
+        dynamic.add(1, 1);
+        assertThrows(IllegalStateException.class, dynamic::closestDistance);
+        assertThrows(IllegalArgumentException.class, () -> dynamic.addAll((PointSet) null));
+        assertThrows(IllegalArgumentException.class, () -> dynamic.addAll(new double[2], new double[3]));
+    }
+
+    private PointSet randomPoints(Random random, int count) {
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextDouble() * 10_000;
+            ys[i] = random.nextDouble() * 10_000;
+        }
+        return new PointSet(xs, ys);
+    }
+
+    private double[] concat(double[] a, double[] b) {
+        double[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package algorithms;
+
+import metrics.CountingMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+class ExternalMergeSortTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSingleRunGoesStraightToOutput() throws IOException {
+        int[] keys = generateRandomArray(5000, Integer.MAX_VALUE);
+        Path input = write("input.bin", keys);
+        Path output = directory.resolve("output.bin");
+
+        long count = new ExternalMergeSort(new CountingMetrics(), 8192, directory).sort(input, output);
+
+        assertEquals(keys.length, count);
+        assertSorted(keys, read(output));
+        assertArrayEquals(keys, read(input), "Input must not change");
+    }
+
+    @Test
+    void testManyRunsMergeInSeveralPasses() throws IOException {
+        // Runs of 1024 keys merge two at a time: 98 runs need seven passes
+        int[] keys = generateRandomArray(100_000, Integer.MAX_VALUE);
+        keys[0] = Integer.MIN_VALUE;
+        keys[1] = Integer.MAX_VALUE;
+        Path input = write("input.bin", keys);
+        Path output = directory.resolve("output.bin");
+        CountingMetrics metrics = new CountingMetrics();
+
+        new ExternalMergeSort(metrics, ExternalMergeSort.MIN_RUN_LENGTH, directory).sort(input, output);
+
+        assertSorted(keys, read(output));
+        assertTrue(metrics.getComparisons() > 0);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count(), "Spill files must be deleted");
+        }
+    }
+
+    @Test
+    void testDuplicatesAndPartialLastRun() throws IOException {
+        int[] keys = generateRandomArray(10_000 + 17, 7);
+        Path input = write("input.bin", keys);
+        Path output = directory.resolve("output.bin");
+
+        new ExternalMergeSort(new CountingMetrics(), 2048, directory).sort(input, output);
+
+        assertSorted(keys, read(output));
+    }
+
+    @Test
+    void testEmptyInput() throws IOException {
+        Path input = write("input.bin", new int[0]);
+        Path output = directory.resolve("output.bin");
+
+        assertEquals(0, new ExternalMergeSort(new CountingMetrics(), 1024, directory).sort(input, output));
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    void testInvalidArguments() throws IOException {
+        Path input = directory.resolve("odd.bin");
+        Files.write(input, new byte[5]);
+        ExternalMergeSort sorter = new ExternalMergeSort(new CountingMetrics(), 1024, directory);
+
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(input, directory.resolve("out.bin")));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(input, input));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(null, input));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalMergeSort(new CountingMetrics(), 16, directory));
+    }
+
+    private Path write(String name, int[] keys) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(keys.length * Integer.BYTES);
+        bytes.asIntBuffer().put(keys);
+        return Files.write(directory.resolve(name), bytes.array());
+    }
+
+    private static int[] read(Path path) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+        int[] keys = new int[bytes.capacity() / Integer.BYTES];
+        bytes.asIntBuffer().get(keys);
+        return keys;
+    }
+
+    private static void assertSorted(int[] keys, int[] actual) {
+        int[] expected = keys.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, actual);
+    }
+
+    private int[] generateRandomArray(int size, int bound) {
+        Random random = new Random(42);
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = random.nextInt(bound) - bound / 2;
+        }
+        return array;
+    }
+}
@@ -0,0 +1,108 @@
+package algorithms;
+
+import metrics.CountingMetrics;
+import metrics.Metrics;
+import util.Point;
+import util.PointSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class GridClosestPairTest {
+
+    @Test
+    void testMatchesDivideAndConquerOnRandomPoints() {
+        GridClosestPair grid = new GridClosestPair(new CountingMetrics());
+        ClosestPair oracle = new ClosestPair(new CountingMetrics(), ClosestPair.Engine.DIVIDE_AND_CONQUER);
+        Random random = new Random(11);
+
+        for (int trial = 0; trial < 20; trial++) {
+            PointSet points = randomPoints(random, 2 + trial * 500, trial % 2 == 0 ? 1000 : 1e-3);
+
+            int[] expected = oracle.findClosestPairIndices(points);
+            int[] actual = grid.findClosestPairIndices(points);
+
+            assertTrue(actual[0] < actual[1]);
+            assertEquals(points.distanceSquared(expected[0], expected[1]),
+                    points.distanceSquared(actual[0], actual[1]));
+        }
+    }
+
+    @Test
+    void testDegenerateInputs() {
+        GridClosestPair grid = new GridClosestPair(new CountingMetrics());
+
+        // Collinear points, negative coordinates
+        int n = 5000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = -7;
+            ys[i] = -i * 4.0;
+        }
+        ys[2500] -= 1.25;
+        PointSet line = new PointSet(xs, ys);
+        int[] pair = grid.findClosestPairIndices(line);
+        assertEquals(2.75, line.distance(pair[0], pair[1]), 1e-9);
+
+        // Duplicates stop the search at distance zero
+        Random random = new Random(3);
+        Point[] points = new Point[3000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(random.nextDouble() * 100, random.nextDouble() * 100);
+        }
+        points[2999] = new Point(points[5].x, points[5].y);
+        Point[] result = grid.findClosestPair(points);
+        assertEquals(0.0, result[0].distanceTo(result[1]));
+
+        // Two points
+        PointSet two = new PointSet(new double[]{1, 4}, new double[]{1, 5});
+        assertArrayEquals(new int[]{0, 1}, grid.findClosestPairIndices(two));
+    }
+
+    @Test
+    void testLinearWork() {
+        Metrics metrics = new CountingMetrics();
+        GridClosestPair grid = new GridClosestPair(metrics);
+        int n = 100_000;
+
+        grid.findClosestPairIndices(randomPoints(new Random(1), n, 1000));
+
+        // At most four points per cell, nine cells per insertion
+        assertTrue(metrics.getComparisons() <= 36L * n, "Comparisons: " + metrics.getComparisons());
+    }
+
+    @Test
+    void testEngineSelection() {
+        Random random = new Random(8);
+        PointSet small = randomPoints(random, 1000, 1000);
+        PointSet large = randomPoints(random, ClosestPair.GRID_THRESHOLD, 1000);
+
+        // Only divide-and-conquer recurses
+        Metrics metrics = new CountingMetrics();
+        new ClosestPair(metrics).findClosestPairIndices(small);
+        assertTrue(metrics.getMaxDepth() > 0);
+
+        metrics = new CountingMetrics();
+        new ClosestPair(metrics).findClosestPairIndices(large);
+        assertEquals(0, metrics.getMaxDepth());
+
+        metrics = new CountingMetrics();
+        new ClosestPair(metrics, ClosestPair.Engine.GRID).findClosestPairIndices(small);
+        assertEquals(0, metrics.getMaxDepth());
+
+        assertThrows(IllegalArgumentException.class, () -> new ClosestPair(new CountingMetrics(), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GridClosestPair(new CountingMetrics()).findClosestPair(new Point[]{new Point(0, 0)}));
+    }
+
+    private PointSet randomPoints(Random random, int count, double scale) {
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextDouble() * scale;
+            ys[i] = random.nextDouble() * scale;
+        }
+        return new PointSet(xs, ys);
+    }
+}
@@ -1,14 +1,17 @@
 package algorithms;
 
+import metrics.CountingMetrics;
 import metrics.Metrics;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
 
 class MergeSortTest {
 
     @Test
     void testSortRandomArray() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         MergeSort sorter = new MergeSort(metrics);
         int[] array = {5, 2, 8, 1, 9, 3};
         int[] expected = {1, 2, 3, 5, 8, 9};
@@ -22,7 +25,7 @@ class MergeSortTest {
 
     @Test
     void testSortAlreadySorted() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         MergeSort sorter = new MergeSort(metrics);
         int[] array = {1, 2, 3, 4, 5};
         int[] expected = {1, 2, 3, 4, 5};
@@ -34,7 +37,7 @@ class MergeSortTest {
 
     @Test
     void testSortEmptyArray() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         MergeSort sorter = new MergeSort(metrics);
         int[] array = {};
 
@@ -45,7 +48,7 @@ class MergeSortTest {
 
     @Test
     void testSortSingleElement() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         MergeSort sorter = new MergeSort(metrics);
         int[] array = {42};
         int[] expected = {42};
@@ -54,4 +57,113 @@ class MergeSortTest {
 
         assertArrayEquals(expected, array);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNaturalMatchesSortingOnStructuredInputs() {
+        Random random = new Random(42);
+        for (int n : new int[]{2, 31, 32, 33, 1000, 65_537}) {
+            int[][] inputs = new int[6][n];
+            for (int i = 0; i < n; i++) {
+                inputs[0][i] = random.nextInt();
+                inputs[1][i] = i % 100 < 95 ? i : random.nextInt(n);
+                inputs[2][i] = n - i;
+                inputs[3][i] = random.nextInt(4);
+                // Ascending and descending runs of random lengths
+                inputs[4][i] = (i / 50) % 2 == 0 ? i % 50 : -(i % 50);
+                // Sawtooth: equal-length sorted runs
+                inputs[5][i] = i % (n / 7 + 1);
+            }
+            for (int[] input : inputs) {
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                int[] array = input.clone();
+
+                new MergeSort(new CountingMetrics(), MergeSort.Strategy.NATURAL).sort(array);
+
+                assertArrayEquals(expected, array, "n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void testNaturalIsLinearOnPresortedInput() {
+        int n = 100_000;
+        int[] ascending = new int[n];
+        int[] descending = new int[n];
+        for (int i = 0; i < n; i++) {
+            ascending[i] = i;
+            descending[i] = -i;
+        }
+        CountingMetrics sorted = new CountingMetrics();
+        CountingMetrics reversed = new CountingMetrics();
+
+        new MergeSort(sorted, MergeSort.Strategy.NATURAL).sort(ascending);
+        new MergeSort(reversed, MergeSort.Strategy.NATURAL).sort(descending);
+
+        assertTrue(sorted.getComparisons() < n, "Comparisons " + sorted.getComparisons());
+        assertTrue(reversed.getComparisons() < n, "Comparisons " + reversed.getComparisons());
+        assertEquals(0, sorted.getAllocations());
+        assertEquals(-n + 1, descending[0]);
+    }
+
+    @Test
+    void testNaturalMergesNearlySortedInputOnce() {
+        // Sorted with a few keys appended out of place, like a late-arriving log tail
+        int n = 100_000;
+        Random random = new Random(7);
+        int[] array = new int[n];
+        for (int i = 0; i < n; i++) {
+            array[i] = i < n - 100 ? 2 * i : random.nextInt(2 * n);
+        }
+        CountingMetrics natural = new CountingMetrics();
+        CountingMetrics topDown = new CountingMetrics();
+
+        new MergeSort(topDown).sort(array.clone());
+        new MergeSort(natural, MergeSort.Strategy.NATURAL).sort(array);
+
+        assertTrue(util.ArrayUtils.isSorted(array));
+        // One scan finds the long run; the short tail runs merge into it once at the top
+        assertTrue(natural.getComparisons() < 2 * n + n / 20, "Comparisons " + natural.getComparisons());
+        assertTrue(natural.getComparisons() < topDown.getComparisons(),
+                natural.getComparisons() + " vs " + topDown.getComparisons());
+        assertThrows(IllegalArgumentException.class, () -> new MergeSort(natural, null));
+    }
+
+    @Test
+    void testBottomUpMatchesSorting() {
+        Random random = new Random(11);
+        // Sizes on both sides of the base-run and pass-parity boundaries
+        for (int n : new int[]{2, 16, 17, 32, 33, 64, 65, 1000, 4096, 65_537}) {
+            for (int bound : new int[]{3, Integer.MAX_VALUE}) {
+                int[] array = new int[n];
+                for (int i = 0; i < n; i++) {
+                    array[i] = random.nextInt(bound) - bound / 2;
+                }
+                int[] expected = array.clone();
+                Arrays.sort(expected);
+                CountingMetrics metrics = new CountingMetrics();
+
+                new MergeSort(metrics, MergeSort.Strategy.BOTTOM_UP).sort(array);
+
+                assertArrayEquals(expected, array, "n=" + n);
+                assertEquals(0, metrics.getMaxDepth());
+            }
+        }
+    }
+
+    @Test
+    void testBottomUpMovesHalfAsMuch() {
+        int n = 1 << 16;
+        int[] input = new Random(5).ints(n).toArray();
+        CountingMetrics topDown = new CountingMetrics();
+        CountingMetrics bottomUp = new CountingMetrics();
+
+        new MergeSort(topDown).sort(input.clone());
+        new MergeSort(bottomUp, MergeSort.Strategy.BOTTOM_UP).sort(input.clone());
+
+        // 12 passes of n moves against copy-out and write-back per top-down level
+        assertEquals(12L * n, bottomUp.getMoves());
+        assertTrue(bottomUp.getMoves() * 2 <= topDown.getMoves() + topDown.getMoves() / 50,
+                bottomUp.getMoves() + " vs " + topDown.getMoves());
+    }
+}
@@ -0,0 +1,116 @@
+package algorithms;
+
+import metrics.CountingMetrics;
+import metrics.Metrics;
+import util.FlatPointSet;
+import util.PointSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class MultiDimClosestPairTest {
+
+    @Test
+    void testMatchesBruteForceAcrossDimensions() {
+        MultiDimClosestPair closestPair = new MultiDimClosestPair(new CountingMetrics());
+        Random random = new Random(21);
+
+        for (int dimension = 1; dimension <= 8; dimension++) {
+            for (int trial = 0; trial < 3; trial++) {
+                FlatPointSet points = randomPoints(random, 300 + trial * 400, dimension);
+
+                int[] pair = closestPair.findClosestPairIndices(points);
+
+                assertTrue(pair[0] < pair[1]);
+                assertEquals(bruteForceSquared(points), points.distanceSquared(pair[0], pair[1]),
+                        "Dimension " + dimension);
+            }
+        }
+    }
+
+    @Test
+    void testSmallInputsInHigherDimensions() {
+        MultiDimClosestPair closestPair = new MultiDimClosestPair(new CountingMetrics());
+        Random random = new Random(9);
+
+        // Two to six points size the grid below one word of occupancy bits
+        for (int dimension = 3; dimension <= 6; dimension++) {
+            for (int n = 2; n <= 6; n++) {
+                FlatPointSet points = randomPoints(random, n, dimension);
+
+                int[] pair = closestPair.findClosestPairIndices(points);
+
+                assertTrue(pair[0] < pair[1]);
+                assertEquals(bruteForceSquared(points), points.distanceSquared(pair[0], pair[1]),
+                        "Dimension " + dimension + ", n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void testDegenerateInputs() {
+        MultiDimClosestPair closestPair = new MultiDimClosestPair(new CountingMetrics());
+
+        // Points on a line through 4D space, negative coordinates
+        int n = 3000;
+        double[] coords = new double[n * 4];
+        for (int i = 0; i < n; i++) {
+            coords[i * 4] = -1;
+            coords[i * 4 + 2] = -i * 2.0;
+        }
+        coords[1000 * 4 + 2] += 0.5;
+        FlatPointSet line = new FlatPointSet(coords, 4);
+        int[] pair = closestPair.findClosestPairIndices(line);
+        assertEquals(1.5, line.distance(pair[0], pair[1]), 1e-9);
+
+        // Duplicates
+        FlatPointSet points = randomPoints(new Random(2), 1000, 3);
+        System.arraycopy(points.coords(), 3 * 10, points.coords(), 3 * 900, 3);
+        pair = closestPair.findClosestPairIndices(points);
+        assertEquals(0.0, points.distance(pair[0], pair[1]));
+    }
+
+    @Test
+    void testPlanarInputsUseClosestPair() {
+        Metrics metrics = new CountingMetrics();
+        MultiDimClosestPair closestPair = new MultiDimClosestPair(metrics);
+        FlatPointSet points = randomPoints(new Random(5), 2000, 2);
+
+        int[] pair = closestPair.findClosestPairIndices(points);
+
+        assertEquals(bruteForceSquared(points), points.distanceSquared(pair[0], pair[1]));
+        assertTrue(metrics.getMaxDepth() > 0, "2D should run the divide-and-conquer engine");
+        PointSet planar = points.toPointSet();
+        assertEquals(points.coord(7, 1), planar.y(7));
+    }
+
+    @Test
+    void testInvalidInput() {
+        MultiDimClosestPair closestPair = new MultiDimClosestPair(new CountingMetrics());
+
+        assertThrows(IllegalArgumentException.class, () -> closestPair.findClosestPairIndices(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> closestPair.findClosestPairIndices(new FlatPointSet(new double[3], 3)));
+        assertThrows(IllegalArgumentException.class, () -> new FlatPointSet(new double[7], 3));
+        assertThrows(IllegalArgumentException.class, () -> new FlatPointSet(new double[6], 0));
+        assertThrows(IllegalArgumentException.class, () -> new FlatPointSet(new double[6], 3).toPointSet());
+    }
+
+    private FlatPointSet randomPoints(Random random, int count, int dimension) {
+        double[] coords = new double[count * dimension];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = random.nextDouble() * 1000;
+        }
+        return new FlatPointSet(coords, dimension);
+    }
+
+    private double bruteForceSquared(FlatPointSet points) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < points.size(); i++) {
+            for (int j = i + 1; j < points.size(); j++) {
+                best = Math.min(best, points.distanceSquared(i, j));
+            }
+        }
+        return best;
+    }
+}
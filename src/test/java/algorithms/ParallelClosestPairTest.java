@@ -0,0 +1,87 @@
+package algorithms;
+
+import metrics.ConcurrentMetrics;
+import util.Point;
+import util.PointSet;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelClosestPairTest {
+
+    @Test
+    void testMatchesSequentialOnRandomPoints() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Small threshold forces parallel sorts, merges and banded strips
+            ParallelClosestPair parallel = new ParallelClosestPair(new ConcurrentMetrics(), pool, 16);
+            ClosestPair sequential = new ClosestPair(new ConcurrentMetrics());
+            Random random = new Random(5);
+
+            for (int trial = 0; trial < 5; trial++) {
+                PointSet points = randomPoints(random, 20_000 + trial * 1000);
+
+                int[] expected = sequential.findClosestPairIndices(points);
+                int[] actual = parallel.findClosestPairIndices(points);
+
+                assertEquals(points.distanceSquared(expected[0], expected[1]),
+                        points.distanceSquared(actual[0], actual[1]));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testVerticalLineUsesWholeStrip() {
+        ParallelClosestPair parallel = new ParallelClosestPair(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 16);
+        int n = 10_000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            ys[i] = (n - i) * 10.0;
+        }
+        ys[4321] += 0.25; // only this point is off the 10-unit grid
+        PointSet points = new PointSet(xs, ys);
+
+        int[] pair = parallel.findClosestPairIndices(points);
+
+        assertEquals(9.75, points.distance(pair[0], pair[1]), 1e-9);
+    }
+
+    @Test
+    void testPointArrayEntryAndDuplicates() {
+        ParallelClosestPair parallel = new ParallelClosestPair(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 16);
+        Random random = new Random(9);
+        Point[] points = new Point[5000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(random.nextDouble() * 1000, random.nextDouble() * 1000);
+        }
+        points[4000] = new Point(points[12].x, points[12].y);
+
+        Point[] result = parallel.findClosestPair(points);
+
+        assertEquals(0.0, result[0].distanceTo(result[1]));
+    }
+
+    @Test
+    void testInvalidInput() {
+        ParallelClosestPair parallel = new ParallelClosestPair(new ConcurrentMetrics());
+
+        assertThrows(IllegalArgumentException.class, () -> parallel.findClosestPair(new Point[]{new Point(0, 0)}));
+        assertThrows(IllegalArgumentException.class, () -> parallel.findClosestPairIndices(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelClosestPair(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 2));
+    }
+
+    private PointSet randomPoints(Random random, int count) {
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextDouble() * 1_000_000;
+            ys[i] = random.nextDouble() * 1_000_000;
+        }
+        return new PointSet(xs, ys);
+    }
+}
@@ -0,0 +1,111 @@
+package algorithms;
+
+import metrics.ConcurrentMetrics;
+import metrics.Metrics;
+import util.ArrayUtils;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelQuickSortTest {
+
+    @Test
+    void testSortRandomArray() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Large enough for block-wise parallel partitioning at the top levels
+            Metrics metrics = new ConcurrentMetrics();
+            ParallelQuickSort sorter = new ParallelQuickSort(metrics, pool, 64);
+            int[] array = generateRandomArray(400_000, 1_000_000);
+            int[] expected = array.clone();
+            Arrays.sort(expected);
+
+            sorter.sort(array);
+
+            assertArrayEquals(expected, array);
+            assertTrue(metrics.getAllocations() > 0, "Block bookkeeping should be recorded");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSortFewDistinctValuesInParallelPartition() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelQuickSort sorter = new ParallelQuickSort(new ConcurrentMetrics(), pool, 1024);
+            int[] array = generateRandomArray(300_000, 1000);
+            int[] expected = array.clone();
+            Arrays.sort(expected);
+
+            sorter.sort(array);
+
+            assertArrayEquals(expected, array);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSortWithDuplicates() {
+        ParallelQuickSort sorter = new ParallelQuickSort(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 16);
+        int[] array = generateRandomArray(10_000, 5);
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+
+        sorter.sort(array);
+
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    void testSortAlreadySortedAndReversed() {
+        ParallelQuickSort sorter = new ParallelQuickSort(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 16);
+        int[] sorted = new int[5000];
+        int[] reversed = new int[5000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+            reversed[i] = sorted.length - i;
+        }
+        int[] expected = sorted.clone();
+
+        sorter.sort(sorted);
+        sorter.sort(reversed);
+
+        assertArrayEquals(expected, sorted);
+        assertTrue(ArrayUtils.isSorted(reversed));
+    }
+
+    @Test
+    void testSortEdgeCases() {
+        ParallelQuickSort sorter = new ParallelQuickSort(new ConcurrentMetrics());
+        int[] empty = {};
+        int[] single = {42};
+
+        sorter.sort(empty);
+        sorter.sort(single);
+        sorter.sort(null); // Should not throw exception
+
+        assertEquals(0, empty.length);
+        assertArrayEquals(new int[]{42}, single);
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelQuickSort(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelQuickSort(new ConcurrentMetrics(), null, 1024));
+    }
+
+    private int[] generateRandomArray(int size, int bound) {
+        Random random = new Random(7);
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = random.nextInt(bound) - bound / 2;
+        }
+        return array;
+    }
+}
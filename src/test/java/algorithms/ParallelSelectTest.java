@@ -0,0 +1,94 @@
+package algorithms;
+
+import metrics.ConcurrentMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelSelectTest {
+
+    @Test
+    void testSelectComparedWithSorting() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Small granularity forces several parallel rounds
+            ParallelSelect selector = new ParallelSelect(new ConcurrentMetrics(), pool, 64);
+            int[] array = generateRandomArray(200_000, Integer.MAX_VALUE);
+            int[] original = array.clone();
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+
+            for (int k : new int[]{0, 1, 17, array.length / 4, array.length / 2, array.length - 2, array.length - 1}) {
+                assertEquals(sorted[k], selector.select(array, k), "Wrong element for k=" + k);
+            }
+            assertArrayEquals(original, array, "Input must not be reordered");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSelectWithDuplicates() {
+        ParallelSelect selector = new ParallelSelect(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 16);
+        for (int distinct : new int[]{1, 2, 5, 1000}) {
+            int[] array = generateRandomArray(50_000, distinct);
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+
+            for (int k = 0; k < array.length; k += 4999) {
+                assertEquals(sorted[k], selector.select(array, k), "Wrong element for k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void testSelectSortedAndReversed() {
+        ParallelSelect selector = new ParallelSelect(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 16);
+        int[] sorted = new int[100_000];
+        int[] reversed = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+            reversed[i] = sorted.length - 1 - i;
+        }
+
+        for (int k : new int[]{0, 12_345, 50_000, 99_999}) {
+            assertEquals(k, selector.select(sorted, k));
+            assertEquals(k, selector.select(reversed, k));
+        }
+    }
+
+    @Test
+    void testSmallArrayRunsSequentially() {
+        ConcurrentMetrics metrics = new ConcurrentMetrics();
+        ParallelSelect selector = new ParallelSelect(metrics);
+        int[] array = {5, 2, 8, 1, 9, 3, 7, 4, 6};
+
+        assertEquals(5, selector.select(array, 4));
+        assertArrayEquals(new int[]{5, 2, 8, 1, 9, 3, 7, 4, 6}, array);
+        assertTrue(metrics.getComparisons() > 0);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        ParallelSelect selector = new ParallelSelect(new ConcurrentMetrics());
+
+        assertThrows(IllegalArgumentException.class, () -> selector.select(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> selector.select(new int[0], 0));
+        assertThrows(IllegalArgumentException.class, () -> selector.select(new int[]{1, 2}, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelSelect(new ConcurrentMetrics(), null, 64));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelSelect(new ConcurrentMetrics(), ForkJoinPool.commonPool(), 1));
+    }
+
+    private int[] generateRandomArray(int size, int bound) {
+        Random random = new Random(42);
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = random.nextInt(bound);
+        }
+        return array;
+    }
+}
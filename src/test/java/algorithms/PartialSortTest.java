@@ -0,0 +1,104 @@
+package algorithms;
+
+import metrics.CountingMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+class PartialSortTest {
+
+    @Test
+    void testPartialSortMatchesSorting() {
+        int[] input = generateRandomArray(20_000, 1_000);
+        int[] sorted = input.clone();
+        Arrays.sort(sorted);
+
+        for (PartialSort.Strategy strategy : PartialSort.Strategy.values()) {
+            PartialSort sorter = new PartialSort(new CountingMetrics(), strategy);
+            for (int k : new int[]{0, 1, 10, 1000, 19_999, 20_000}) {
+                int[] array = input.clone();
+                sorter.partialSort(array, k);
+
+                assertArrayEquals(Arrays.copyOf(sorted, k), Arrays.copyOf(array, k), strategy + " k=" + k);
+                int[] all = array.clone();
+                Arrays.sort(all);
+                assertArrayEquals(sorted, all, "Partial sort must permute the input");
+            }
+        }
+    }
+
+    @Test
+    void testTopKLeavesInputUnchanged() {
+        int[] input = generateRandomArray(50_000, Integer.MAX_VALUE);
+        int[] original = input.clone();
+        int[] sorted = input.clone();
+        Arrays.sort(sorted);
+
+        for (PartialSort.Strategy strategy : PartialSort.Strategy.values()) {
+            PartialSort sorter = new PartialSort(new CountingMetrics(), strategy);
+            for (int k : new int[]{0, 1, 20, 5000, 50_000}) {
+                int[] out = new int[k + 3];
+                sorter.topK(input, k, out);
+
+                assertArrayEquals(Arrays.copyOf(sorted, k), Arrays.copyOf(out, k), strategy + " k=" + k);
+                assertArrayEquals(original, input);
+            }
+        }
+    }
+
+    @Test
+    void testTopKHeapAvoidsCopy() {
+        CountingMetrics metrics = new CountingMetrics();
+        PartialSort sorter = new PartialSort(metrics);
+        int[] input = generateRandomArray(100_000, Integer.MAX_VALUE);
+
+        sorter.topK(input, 10, new int[10]);
+
+        assertEquals(0, metrics.getAllocations());
+        assertTrue(metrics.getComparisons() < 2L * input.length, "Comparisons " + metrics.getComparisons());
+    }
+
+    @Test
+    void testTopKDescendingInputAbandonsHeap() {
+        int n = 100_000;
+        int[] descending = new int[n];
+        for (int i = 0; i < n; i++) {
+            descending[i] = n - i;
+        }
+        CountingMetrics auto = new CountingMetrics();
+        CountingMetrics heap = new CountingMetrics();
+        int[] out = new int[50];
+
+        new PartialSort(heap, PartialSort.Strategy.HEAP).topK(descending, 50, out);
+        new PartialSort(auto).topK(descending, 50, out);
+
+        // Every element would replace the root; the select fallback stays linear
+        for (int i = 0; i < out.length; i++) {
+            assertEquals(i + 1, out[i]);
+        }
+        assertTrue(auto.getComparisons() * 2 < heap.getComparisons(),
+                auto.getComparisons() + " vs " + heap.getComparisons());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        PartialSort sorter = new PartialSort(new CountingMetrics());
+
+        assertThrows(IllegalArgumentException.class, () -> sorter.partialSort(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> sorter.partialSort(new int[3], 4));
+        assertThrows(IllegalArgumentException.class, () -> sorter.partialSort(new int[3], -1));
+        assertThrows(IllegalArgumentException.class, () -> sorter.topK(new int[3], 2, new int[1]));
+        assertThrows(IllegalArgumentException.class, () -> sorter.topK(new int[3], 2, null));
+        assertThrows(IllegalArgumentException.class, () -> new PartialSort(new CountingMetrics(), null));
+    }
+
+    private int[] generateRandomArray(int size, int bound) {
+        Random random = new Random(42);
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = random.nextInt(bound);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,187 @@
+package algorithms;
+
+import metrics.ConcurrentMetrics;
+import metrics.CountingMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class QuantileSketchTest {
+    private static final double[] PERCENTILES = {0, 0.5, 0.9, 0.95, 0.99, 0.999, 1};
+
+    @Test
+    void testExactModeMatchesSorting() {
+        QuantileSketch sketch = new QuantileSketch(new CountingMetrics(), 200, 1000);
+        int[] samples = new Random(1).ints(1000, 0, 1_000_000).toArray();
+        for (int sample : samples) {
+            sketch.update(sample);
+        }
+        int[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        assertTrue(sketch.isExact());
+        int[] result = sketch.quantiles(PERCENTILES);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            assertEquals(sorted[(int) Math.floor(PERCENTILES[i] * 999)], result[i]);
+        }
+    }
+
+    @Test
+    void testBoundedMemoryAndRankError() {
+        int k = 200;
+        QuantileSketch sketch = new QuantileSketch(new CountingMetrics(), k, 1000);
+        int n = 1_000_000;
+        int[] samples = new Random(2).ints(n).toArray();
+        for (int sample : samples) {
+            sketch.update(sample);
+        }
+        int[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        assertFalse(sketch.isExact());
+        assertEquals(n, sketch.count());
+        assertTrue(sketch.retained() <= 3 * k + 64, "Retained " + sketch.retained());
+        assertRankError(sorted, sketch, 0.01);
+        assertEquals(sorted[0], sketch.quantile(0));
+        assertEquals(sorted[n - 1], sketch.quantile(1));
+    }
+
+    @Test
+    void testMergeAcrossShards() {
+        Random random = new Random(3);
+        QuantileSketch merged = new QuantileSketch(new CountingMetrics());
+        int[] all = new int[0];
+        for (int shard = 0; shard < 8; shard++) {
+            // Shards of very different sizes and value ranges
+            int[] samples = random.ints(1000 + shard * 40_000, shard * 1000, shard * 1000 + 50_000).toArray();
+            QuantileSketch sketch = new QuantileSketch(new CountingMetrics());
+            for (int sample : samples) {
+                sketch.update(sample);
+            }
+            merged.merge(sketch);
+
+            int[] grown = Arrays.copyOf(all, all.length + samples.length);
+            System.arraycopy(samples, 0, grown, all.length, samples.length);
+            all = grown;
+        }
+        Arrays.sort(all);
+
+        assertEquals(all.length, merged.count());
+        assertRankError(all, merged, 0.015);
+
+        // Two small exact sketches stay exact when merged
+        QuantileSketch a = new QuantileSketch(new CountingMetrics());
+        QuantileSketch b = new QuantileSketch(new CountingMetrics());
+        for (int i = 0; i < 100; i++) {
+            a.update(i);
+            b.update(100 + i);
+        }
+        a.merge(b);
+        assertTrue(a.isExact());
+        assertEquals(99, a.quantile(0.5));
+    }
+
+    @Test
+    void testMergeWithItself() {
+        QuantileSketch exact = new QuantileSketch(new CountingMetrics());
+        for (int i = 0; i < 100; i++) {
+            exact.update(i);
+        }
+        exact.merge(exact);
+
+        assertEquals(200, exact.count());
+        assertTrue(exact.isExact());
+        assertEquals(49, exact.quantile(0.5));
+
+        int[] samples = new Random(4).ints(100_000, 0, 1_000_000).toArray();
+        QuantileSketch sketch = new QuantileSketch(new CountingMetrics());
+        for (int sample : samples) {
+            sketch.update(sample);
+        }
+        sketch.merge(sketch);
+
+        // Every sample twice has the same quantiles
+        int[] doubled = Arrays.copyOf(samples, 2 * samples.length);
+        System.arraycopy(samples, 0, doubled, samples.length, samples.length);
+        Arrays.sort(doubled);
+        assertEquals(doubled.length, sketch.count());
+        assertRankError(doubled, sketch, 0.015);
+    }
+
+    @Test
+    void testConcurrentUpdatesFromManyThreads() throws Exception {
+        ConcurrentQuantileSketch sketch = new ConcurrentQuantileSketch(new ConcurrentMetrics());
+        int threads = 4;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        sketch.update(offset + i);
+                    }
+                    sketch.flush();
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        QuantileSketch snapshot = sketch.snapshot();
+        long n = (long) threads * perThread;
+        assertEquals(n, snapshot.count());
+        // Values are 0..n-1, so the q-quantile should be close to q * n
+        assertEquals(0.99 * n, snapshot.quantile(0.99), 0.01 * n);
+        assertEquals(0.5 * n, sketch.quantile(0.5), 0.01 * n);
+    }
+
+    @Test
+    void testInvalidInput() {
+        QuantileSketch sketch = new QuantileSketch(new CountingMetrics());
+
+        assertThrows(IllegalStateException.class, () -> sketch.quantile(0.5));
+        sketch.update(1);
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(new CountingMetrics(), 50, 10)));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(new CountingMetrics(), 4, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentQuantileSketch(new CountingMetrics(), 200, -1));
+    }
+
+    private void assertRankError(int[] sorted, QuantileSketch sketch, double epsilon) {
+        int n = sorted.length;
+        for (double q : PERCENTILES) {
+            int estimate = sketch.quantile(q);
+            // Rank interval of the estimate in the true data
+            int low = lowerBound(sorted, estimate);
+            int high = lowerBound(sorted, estimate + 1L) - 1;
+            long target = (long) Math.floor(q * (n - 1));
+            long error = target < low ? low - target : Math.max(0, target - high);
+            assertTrue(error <= epsilon * n, "q=" + q + " rank error " + error);
+        }
+    }
+
+    private int lowerBound(int[] sorted, long value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
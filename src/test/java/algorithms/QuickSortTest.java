@@ -1,15 +1,28 @@
 package algorithms;
 
+import metrics.CountingMetrics;
 import metrics.Metrics;
+import util.ArrayUtils;
+import util.PartitionUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Random;
 
 class QuickSortTest {
 
     @Test
     void testSortRandomArray() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         QuickSort sorter = new QuickSort(metrics);
         int[] array = {5, 2, 8, 1, 9, 3};
         int[] expected = {1, 2, 3, 5, 8, 9};
@@ -24,7 +37,7 @@ class QuickSortTest {
 
     @Test
     void testSortAlreadySorted() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         QuickSort sorter = new QuickSort(metrics);
         int[] array = {1, 2, 3, 4, 5};
         int[] expected = {1, 2, 3, 4, 5};
@@ -36,7 +49,7 @@ class QuickSortTest {
 
     @Test
     void testSortWithDuplicates() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         QuickSort sorter = new QuickSort(metrics);
         int[] array = {3, 1, 4, 1, 5, 9, 2, 6, 5};
         int[] expected = {1, 1, 2, 3, 4, 5, 5, 6, 9};
@@ -48,7 +61,7 @@ class QuickSortTest {
 
     @Test
     void testSortLargeArray() {
-        Metrics metrics = new Metrics();
+        Metrics metrics = new CountingMetrics();
         QuickSort sorter = new QuickSort(metrics);
         int[] array = new int[1000];
         for (int i = 0; i < array.length; i++) {
@@ -67,4 +80,99 @@ class QuickSortTest {
         assertTrue(metrics.getMaxDepth() > 0, "Depth should be positive");
         assertTrue(metrics.getMaxDepth() < array.length * 2, "Depth should not be excessive");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAllSchemesMatchArraysSort() {
+        Random random = new Random(11);
+        for (PartitionUtils.Scheme scheme : PartitionUtils.Scheme.values()) {
+            QuickSort sorter = new QuickSort(new CountingMetrics(), scheme);
+            for (int bound : new int[]{3, 20, 1_000_000}) {
+                int[] array = new int[5000];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = random.nextInt(bound) - bound / 2;
+                }
+                int[] expected = array.clone();
+                Arrays.sort(expected);
+
+                sorter.sort(array);
+
+                assertArrayEquals(expected, array, scheme + " with bound " + bound);
+            }
+        }
+    }
+
+    @Test
+    void testThreeWaySkipsEqualKeys() {
+        int[] array = new int[100_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 20; // 20 distinct keys, like status codes
+        }
+        Metrics threeWay = new CountingMetrics();
+        Metrics lomuto = new CountingMetrics();
+
+        new QuickSort(threeWay, PartitionUtils.Scheme.THREE_WAY).sort(array.clone());
+        new QuickSort(lomuto, PartitionUtils.Scheme.LOMUTO).sort(array.clone());
+
+        // Each key is settled by one partition pass instead of one pass per copy
+        assertTrue(threeWay.getComparisons() < array.length * 10,
+                "Three-way partitioning should stay near-linear on few unique keys");
+        assertTrue(threeWay.getComparisons() * 10 < lomuto.getComparisons());
+    }
+
+    @Test
+    void testSortBufferRangeInPlace() {
+        QuickSort sorter = new QuickSort(new CountingMetrics());
+        int[] values = new Random(42).ints(10_000, 0, 500).toArray();
+        int[] expected = values.clone();
+        Arrays.sort(expected, 100, 9_900);
+
+        // Only [position, limit) is sorted, and both stay where they were
+        IntBuffer buffer = IntBuffer.wrap(values.clone());
+        buffer.position(100).limit(9_900);
+        sorter.sort(buffer);
+
+        assertEquals(100, buffer.position());
+        assertEquals(9_900, buffer.limit());
+        assertArrayEquals(expected, buffer.array());
+    }
+
+    @Test
+    void testSortDirectByteBufferInEitherByteOrder() {
+        QuickSort sorter = new QuickSort(new CountingMetrics());
+        int[] values = new Random(7).ints(5_000).toArray();
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.nativeOrder(), ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer bytes = ByteBuffer.allocateDirect(values.length * Integer.BYTES).order(order);
+            bytes.asIntBuffer().put(values);
+
+            sorter.sort(bytes);
+
+            int[] actual = new int[values.length];
+            bytes.asIntBuffer().get(actual);
+            assertArrayEquals(expected, actual, order.toString());
+        }
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(ByteBuffer.allocate(6)));
+    }
+
+    @Test
+    void testSortMappedFile(@TempDir Path directory) throws IOException {
+        QuickSort sorter = new QuickSort(new CountingMetrics());
+        int count = 100_000;
+        try (FileChannel channel = FileChannel.open(directory.resolve("keys.bin"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) count * Integer.BYTES);
+            mapped.order(ByteOrder.nativeOrder());
+            IntBuffer keys = mapped.asIntBuffer();
+            Random random = new Random(42);
+            for (int i = 0; i < count; i++) {
+                keys.put(i, random.nextInt());
+            }
+
+            sorter.sort(mapped);
+
+            assertTrue(ArrayUtils.isSorted(keys));
+        }
+    }
+}
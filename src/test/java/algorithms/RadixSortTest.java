@@ -0,0 +1,81 @@
+package algorithms;
+
+import metrics.CountingMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+class RadixSortTest {
+
+    @Test
+    void testSignedKeysAllDigitWidths() {
+        int[] input = new int[10_000];
+        Random random = new Random(42);
+        for (int i = 0; i < input.length; i++) {
+            input[i] = random.nextInt();
+        }
+        input[0] = Integer.MIN_VALUE;
+        input[1] = Integer.MAX_VALUE;
+        input[2] = -1;
+        input[3] = 0;
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+
+        for (int bits : new int[]{1, 5, 8, 11, 16}) {
+            int[] array = input.clone();
+            new RadixSort(new CountingMetrics(), bits).sort(array);
+
+            assertArrayEquals(expected, array, "bits=" + bits);
+        }
+    }
+
+    @Test
+    void testConstantDigitsAreSkipped() {
+        // Only the low 11-bit digit varies, so the sort is a single scatter pass
+        int[] array = new int[5000];
+        Random random = new Random(7);
+        for (int i = 0; i < array.length; i++) {
+            array[i] = -(1 << 20) + random.nextInt(1 << 11);
+        }
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+
+        int[] scratch = new int[array.length];
+        new RadixSort(new CountingMetrics()).sort(array, scratch);
+
+        assertArrayEquals(expected, array);
+        // An odd number of passes ends in scratch and is copied back
+        assertArrayEquals(expected, scratch);
+    }
+
+    @Test
+    void testAllEqualAndTinyInputs() {
+        RadixSort sorter = new RadixSort(new CountingMetrics());
+        int[] equal = new int[100];
+        Arrays.fill(equal, -5);
+        int[] expected = equal.clone();
+
+        sorter.sort(equal);
+        sorter.sort(new int[0]);
+        sorter.sort(null);
+        int[] single = {Integer.MIN_VALUE};
+        sorter.sort(single);
+
+        assertArrayEquals(expected, equal);
+        assertArrayEquals(new int[]{Integer.MIN_VALUE}, single);
+    }
+
+    @Test
+    void testMakesNoComparisons() {
+        CountingMetrics metrics = new CountingMetrics();
+        int[] array = new Random(1).ints(1000).toArray();
+
+        new RadixSort(metrics).sort(array);
+
+        assertEquals(0, metrics.getComparisons());
+        assertTrue(metrics.getAllocations() >= array.length);
+        assertThrows(IllegalArgumentException.class, () -> new RadixSort(metrics, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RadixSort(metrics, 17));
+    }
+}
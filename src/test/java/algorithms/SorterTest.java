@@ -0,0 +1,76 @@
+package algorithms;
+
+import metrics.CountingMetrics;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+class SorterTest {
+
+    @Test
+    void testAllEnginesSortEveryShape() {
+        Random random = new Random(42);
+        for (int n : new int[]{0, 1, 2, 31, 33, 700, 5000}) {
+            int[][] shapes = new int[4][n];
+            for (int i = 0; i < n; i++) {
+                shapes[0][i] = random.nextInt();
+                shapes[1][i] = i - n / 2;
+                shapes[2][i] = Integer.MAX_VALUE - i;
+                shapes[3][i] = random.nextInt(3) - 1;
+            }
+            for (int[] input : shapes) {
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                for (Sorter.Engine engine : Sorter.Engine.values()) {
+                    int[] array = input.clone();
+                    new Sorter(new CountingMetrics(), engine).sort(array);
+
+                    assertArrayEquals(expected, array, engine + " n=" + n);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAutoChoosesBySizeAndShape() {
+        Sorter sorter = new Sorter(new CountingMetrics());
+        Random random = new Random(7);
+
+        assertEquals(Sorter.Engine.INSERTION, sorter.choose(random.ints(Sorter.INSERTION_THRESHOLD).toArray()));
+        assertEquals(Sorter.Engine.MERGE, sorter.choose(random.ints(Sorter.INSERTION_THRESHOLD + 1).toArray()));
+        assertEquals(Sorter.Engine.RADIX, sorter.choose(random.ints(100_000).toArray()));
+
+        int[] ascending = new int[100_000];
+        int[] descending = new int[100_000];
+        for (int i = 0; i < ascending.length; i++) {
+            ascending[i] = i;
+            descending[i] = -i;
+        }
+        assertEquals(Sorter.Engine.MERGE, sorter.choose(ascending));
+        assertEquals(Sorter.Engine.MERGE, sorter.choose(descending));
+    }
+
+    @Test
+    void testNarrowRangeLowersRadixThreshold() {
+        Sorter sorter = new Sorter(new CountingMetrics());
+        Random random = new Random(3);
+        int n = Sorter.RADIX_BASE_KEYS + 2 * Sorter.RADIX_KEYS_PER_PASS;
+
+        // One 11-bit digit varies: one pass is enough
+        int[] narrow = random.ints(n, 5000, 5000 + (1 << 10)).toArray();
+        // All 32 bits vary: three passes
+        int[] wide = random.ints(n).toArray();
+
+        assertEquals(Sorter.Engine.RADIX, sorter.choose(narrow));
+        assertEquals(Sorter.Engine.MERGE, sorter.choose(wide));
+    }
+
+    @Test
+    void testFixedEngineIsNotSecondGuessed() {
+        int[] tiny = {3, 1, 2};
+
+        assertEquals(Sorter.Engine.QUICK, new Sorter(new CountingMetrics(), Sorter.Engine.QUICK).choose(tiny));
+        assertThrows(IllegalArgumentException.class, () -> new Sorter(new CountingMetrics(), null));
+    }
+}
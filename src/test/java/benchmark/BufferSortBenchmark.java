@@ -0,0 +1,95 @@
+package benchmark;
+
+import algorithms.DeterministicSelect;
+import algorithms.QuickSort;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting and selecting keys that live in a memory-mapped file: in place through the
+ * buffer overloads versus copying onto the heap, running the int[] engine and copying
+ * back. Calls take seconds at 1 GB, so each is timed once per iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Thread)
+public class BufferSortBenchmark {
+
+    @Param({"16777216", "268435456"})
+    public int size;
+
+    private int[] source;
+    private Path file;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private IntBuffer keys;
+    private QuickSort quickSort;
+    private DeterministicSelect select;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = Inputs.ints(size, Inputs.Shape.RANDOM);
+        file = Files.createTempFile("keys", ".bin");
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) size * Integer.BYTES);
+        mapped.order(ByteOrder.nativeOrder());
+        keys = mapped.asIntBuffer();
+        quickSort = new QuickSort(Metrics.noOp());
+        select = new DeterministicSelect(Metrics.noOp());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Setup(Level.Iteration)
+    public void refill() {
+        keys.clear();
+        keys.put(source);
+        keys.clear();
+    }
+
+    @Benchmark
+    public IntBuffer sortMapped() {
+        quickSort.sort(keys);
+        return keys;
+    }
+
+    @Benchmark
+    public IntBuffer sortCopyInCopyOut() {
+        int[] heap = new int[size];
+        keys.get(heap).clear();
+        quickSort.sort(heap);
+        keys.put(heap).clear();
+        return keys;
+    }
+
+    @Benchmark
+    public int selectMapped() {
+        return select.select(keys, size / 2);
+    }
+
+    @Benchmark
+    public int selectCopyInCopyOut() {
+        int[] heap = new int[size];
+        keys.get(heap).clear();
+        int median = select.select(heap, size / 2);
+        keys.put(heap).clear();
+        return median;
+    }
+}
@@ -0,0 +1,44 @@
+package benchmark;
+
+import algorithms.ClosestPair;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+import util.PointSet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Divide-and-conquer vs grid hashing across sizes and point layouts;
+ * the crossover sets {@link ClosestPair#GRID_THRESHOLD}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClosestPairEngineBenchmark {
+
+    @Param({"1000", "4000", "16000", "262144", "1000000"})
+    public int size;
+
+    @Param({"UNIFORM", "CLUSTERED", "VERTICAL_LINE"})
+    public Inputs.PointShape shape;
+
+    @Param({"DIVIDE_AND_CONQUER", "GRID"})
+    public ClosestPair.Engine engine;
+
+    private PointSet points;
+    private ClosestPair closestPair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        points = PointSet.of(Inputs.points(size, shape));
+        closestPair = new ClosestPair(Metrics.noOp(), engine);
+    }
+
+    @Benchmark
+    public int[] closestPair() {
+        return closestPair.findClosestPairIndices(points);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import algorithms.ClosestPair;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+import util.PointSet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k closest pairs and all nearest neighbours against the single closest pair
+ * on the same divide-and-conquer core
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClosestPairQueryBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"1", "1000", "1000000"})
+    public int k;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Inputs.PointShape shape;
+
+    private PointSet points;
+    private ClosestPair closestPair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        points = PointSet.of(Inputs.points(size, shape));
+        closestPair = new ClosestPair(Metrics.noOp(), ClosestPair.Engine.DIVIDE_AND_CONQUER);
+    }
+
+    @Benchmark
+    public int[] closestPair() {
+        return closestPair.findClosestPairIndices(points);
+    }
+
+    @Benchmark
+    public int[] kClosestPairs() {
+        return closestPair.findKClosestPairs(points, k);
+    }
+
+    @Benchmark
+    public int[] allNearestNeighbors() {
+        return closestPair.allNearestNeighbors(points);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import algorithms.ClosestPair;
+import algorithms.DynamicClosestPair;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+import util.Point;
+import util.PointSet;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest of size points in batches with a closest-pair query after each
+ * batch: incremental maintenance vs recomputing from scratch every time
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DynamicClosestPairBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"1", "100", "10000"})
+    public int batch;
+
+    private double[] xs;
+    private double[] ys;
+    private ClosestPair closestPair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Point[] points = Inputs.points(size, Inputs.PointShape.UNIFORM);
+        PointSet set = PointSet.of(points);
+        xs = set.xs();
+        ys = set.ys();
+        closestPair = new ClosestPair(Metrics.noOp());
+    }
+
+    @Benchmark
+    public double incremental() {
+        DynamicClosestPair dynamic = new DynamicClosestPair(Metrics.noOp());
+        double checksum = 0;
+        for (int from = 0; from < size; from += batch) {
+            int to = Math.min(size, from + batch);
+            if (batch == 1) {
+                dynamic.add(xs[from], ys[from]);
+            } else {
+                dynamic.addAll(Arrays.copyOfRange(xs, from, to), Arrays.copyOfRange(ys, from, to));
+            }
+            if (dynamic.size() >= 2) {
+                checksum += dynamic.closestDistance();
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Only run with the largest batch: smaller batches make the rescan quadratic
+     */
+    @Benchmark
+    public double recompute() {
+        if (batch < 10_000) return 0;
+        double checksum = 0;
+        for (int to = batch; to <= size; to += batch) {
+            PointSet prefix = new PointSet(Arrays.copyOf(xs, to), Arrays.copyOf(ys, to));
+            int[] pair = closestPair.findClosestPairIndices(prefix);
+            checksum += prefix.distance(pair[0], pair[1]);
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import util.Point;
+
+import java.util.Random;
+
+/**
+ * Deterministic input generators shared by the JMH benchmarks
+ */
+public final class Inputs {
+    private static final long SEED = 42L;
+
+    private Inputs() {
+    }
+
+    /**
+     * Input shapes exercised by the sorting and selection benchmarks
+     */
+    public enum Shape {
+        RANDOM,
+        SORTED,
+        REVERSED,
+        FEW_UNIQUE,
+        NEARLY_SORTED,
+        ORGAN_PIPE
+    }
+
+    public static int[] ints(int size, Shape shape) {
+        Random random = new Random(SEED);
+        int[] array = new int[size];
+
+        switch (shape) {
+            case SORTED:
+                for (int i = 0; i < size; i++) array[i] = i;
+                break;
+            case REVERSED:
+                for (int i = 0; i < size; i++) array[i] = size - i;
+                break;
+            case FEW_UNIQUE:
+                // About 20 distinct keys, like status codes or bucket ids
+                for (int i = 0; i < size; i++) array[i] = random.nextInt(20);
+                break;
+            case NEARLY_SORTED:
+                // Sorted with ~5% of the positions swapped at random
+                for (int i = 0; i < size; i++) array[i] = i;
+                for (int swaps = size / 20; swaps > 0; swaps--) {
+                    int a = random.nextInt(size);
+                    int b = random.nextInt(size);
+                    int temp = array[a];
+                    array[a] = array[b];
+                    array[b] = temp;
+                }
+                break;
+            case ORGAN_PIPE:
+                // Rises then falls: defeats pivots taken from fixed positions
+                for (int i = 0; i < size; i++) array[i] = i < size / 2 ? i : size - i;
+                break;
+            case RANDOM:
+            default:
+                for (int i = 0; i < size; i++) array[i] = random.nextInt();
+                break;
+        }
+        return array;
+    }
+
+    /**
+     * Input shapes exercised by the closest pair benchmarks
+     */
+    public enum PointShape {
+        UNIFORM,
+        CLUSTERED,
+        VERTICAL_LINE
+    }
+
+    public static Point[] points(int count, PointShape shape) {
+        Random random = new Random(SEED);
+        Point[] points = new Point[count];
+
+        switch (shape) {
+            case CLUSTERED:
+                // Gaussian blobs around 16 random centres
+                double[][] centres = new double[16][2];
+                for (double[] centre : centres) {
+                    centre[0] = random.nextDouble() * 1_000_000;
+                    centre[1] = random.nextDouble() * 1_000_000;
+                }
+                for (int i = 0; i < count; i++) {
+                    double[] centre = centres[i & 15];
+                    points[i] = new Point(centre[0] + random.nextGaussian() * 1000,
+                            centre[1] + random.nextGaussian() * 1000);
+                }
+                break;
+            case VERTICAL_LINE:
+                // Every point shares x, so the whole input ends up in the strip
+                for (int i = 0; i < count; i++) {
+                    points[i] = new Point(0, random.nextDouble() * 1_000_000);
+                }
+                break;
+            case UNIFORM:
+            default:
+                for (int i = 0; i < count; i++) {
+                    points[i] = new Point(random.nextDouble() * 1_000_000, random.nextDouble() * 1_000_000);
+                }
+                break;
+        }
+        return points;
+    }
+}
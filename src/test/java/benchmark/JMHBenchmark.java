@@ -1,4 +1,142 @@
 package benchmark;
 
+import algorithms.ClosestPair;
+import algorithms.DeterministicSelect;
+import algorithms.MergeSort;
+import algorithms.QuickSort;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import util.Point;
+import util.PointSet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH suite for the four divide-and-conquer algorithms.
+ * Every benchmark reports both throughput and average time; run through
+ * {@link #main} to also get allocation rates from the GC profiler.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
 public class JMHBenchmark {
+
+    @State(Scope.Thread)
+    public static class IntInput {
+        @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "NEARLY_SORTED"})
+        public Inputs.Shape shape;
+
+        public int[] source;
+        public int[] work;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            source = Inputs.ints(size, shape);
+            work = new int[size];
+        }
+
+        /**
+         * Restores the unsorted input; the O(n) copy is negligible next to the algorithms measured
+         */
+        public int[] fresh() {
+            System.arraycopy(source, 0, work, 0, size);
+            return work;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PointInput {
+        @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+        public int size;
+
+        @Param({"UNIFORM", "CLUSTERED", "VERTICAL_LINE"})
+        public Inputs.PointShape shape;
+
+        public Point[] points;
+        public PointSet pointSet;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            points = Inputs.points(size, shape);
+            pointSet = PointSet.of(points);
+        }
+    }
+
+    /**
+     * Algorithms wired to no-op metrics, so the instrumentation hooks compile away
+     */
+    @State(Scope.Thread)
+    public static class Algorithms {
+        public Metrics metrics;
+        public MergeSort mergeSort;
+        public QuickSort quickSort;
+        public DeterministicSelect select;
+        public ClosestPair closestPair;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            metrics = Metrics.noOp();
+            mergeSort = new MergeSort(metrics);
+            quickSort = new QuickSort(metrics);
+            select = new DeterministicSelect(metrics);
+            closestPair = new ClosestPair(metrics);
+        }
+    }
+
+    @Benchmark
+    public int[] mergeSort(IntInput input, Algorithms algorithms) {
+        int[] array = input.fresh();
+        algorithms.mergeSort.sort(array);
+        return array;
+    }
+
+    @Benchmark
+    public int[] quickSort(IntInput input, Algorithms algorithms) {
+        int[] array = input.fresh();
+        algorithms.quickSort.sort(array);
+        return array;
+    }
+
+    @Benchmark
+    public int selectMedian(IntInput input, Algorithms algorithms) {
+        int[] array = input.fresh();
+        return algorithms.select.select(array, array.length / 2);
+    }
+
+    @Benchmark
+    public Point[] closestPair(PointInput input, Algorithms algorithms) {
+        return algorithms.closestPair.findClosestPair(input.points);
+    }
+
+    @Benchmark
+    public int[] closestPairIndices(PointInput input, Algorithms algorithms) {
+        return algorithms.closestPair.findClosestPairIndices(input.pointSet);
+    }
+
+    /**
+     * Runs the benchmarks in this package with the GC profiler attached.
+     * Accepts the standard JMH command line, e.g. {@code -p size=1000000 -jvmArgs -Xmx8g JMHBenchmark.quickSort}
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("benchmark\\..*");
+        }
+        Options options = builder.addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
 }
@@ -0,0 +1,53 @@
+package benchmark;
+
+import algorithms.MergeSort;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MergeSort strategies across input shapes: natural run merging should be
+ * linear on presorted input and stay close to top-down on random input;
+ * bottom-up should win once merges are bound by memory traffic. Elements
+ * moved per sort, for the same inputs, come from {@link metrics.CountingMetrics#getMoves()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Thread)
+public class MergeSortBenchmark {
+
+    @Param({"1000000", "16777216", "67108864"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE"})
+    public Inputs.Shape shape;
+
+    @Param({"TOP_DOWN", "NATURAL", "BOTTOM_UP"})
+    public MergeSort.Strategy strategy;
+
+    private int[] source;
+    private int[] work;
+    private MergeSort sorter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, shape);
+        work = new int[size];
+        sorter = new MergeSort(Metrics.noOp(), strategy);
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public int[] sort() {
+        sorter.sort(work);
+        return work;
+    }
+}
@@ -0,0 +1,130 @@
+package benchmark;
+
+import algorithms.MergeSort;
+import metrics.CountingMetrics;
+import metrics.Metrics;
+import metrics.SamplingMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation hooks: MergeSort under each Metrics implementation
+ * against a copy of the same algorithm with every hook removed.
+ * Each parameter value runs in its own fork, so the hook call sites stay monomorphic.
+ * Differences between modes are a few percent at most, so it takes many forks
+ * and iterations to resolve them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(5)
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    public enum Instrumentation {
+        NO_OP,
+        SAMPLING,
+        COUNTING
+    }
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"NO_OP", "SAMPLING", "COUNTING"})
+    public Instrumentation mode;
+
+    private int[] source;
+    private int[] work;
+    private MergeSort mergeSort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, Inputs.Shape.RANDOM);
+        work = new int[size];
+        Metrics metrics;
+        switch (mode) {
+            case SAMPLING:
+                metrics = new SamplingMetrics();
+                break;
+            case COUNTING:
+                metrics = new CountingMetrics();
+                break;
+            case NO_OP:
+            default:
+                metrics = Metrics.noOp();
+                break;
+        }
+        mergeSort = new MergeSort(metrics);
+    }
+
+    private int[] fresh() {
+        System.arraycopy(source, 0, work, 0, size);
+        return work;
+    }
+
+    @Benchmark
+    public int[] instrumented() {
+        int[] array = fresh();
+        mergeSort.sort(array);
+        return array;
+    }
+
+    /**
+     * Baseline: independent of the mode parameter
+     */
+    @Benchmark
+    public int[] uninstrumented() {
+        int[] array = fresh();
+        int[] buffer = new int[array.length];
+        sort(array, 0, array.length - 1, buffer);
+        return array;
+    }
+
+    // MergeSort with the metrics calls stripped out
+
+    private static void sort(int[] array, int left, int right, int[] buffer) {
+        if (right - left <= 15) {
+            insertionSort(array, left, right);
+            return;
+        }
+
+        int mid = left + (right - left) / 2;
+        sort(array, left, mid, buffer);
+        sort(array, mid + 1, right, buffer);
+
+        // Runs already in order: nothing to merge
+        if (array[mid] <= array[mid + 1]) return;
+
+        merge(array, left, mid, right, buffer);
+    }
+
+    private static void merge(int[] array, int left, int mid, int right, int[] buffer) {
+        System.arraycopy(array, left, buffer, left, right - left + 1);
+
+        int i = left, j = mid + 1, k = left;
+        while (i <= mid && j <= right) {
+            if (buffer[i] <= buffer[j]) {
+                array[k++] = buffer[i++];
+            } else {
+                array[k++] = buffer[j++];
+            }
+        }
+        while (i <= mid) {
+            array[k++] = buffer[i++];
+        }
+    }
+
+    private static void insertionSort(int[] array, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            int key = array[i];
+            int j = i - 1;
+            while (j >= left && array[j] > key) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = key;
+        }
+    }
+}
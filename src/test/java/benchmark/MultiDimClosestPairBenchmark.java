@@ -0,0 +1,71 @@
+package benchmark;
+
+import algorithms.MultiDimClosestPair;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+import util.FlatPointSet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grid closest pair vs brute force for uniform points in d dimensions
+ * (d = 2 runs the planar divide-and-conquer)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiDimClosestPairBenchmark {
+    private static final int BRUTE_FORCE_LIMIT = 20_000;
+
+    @Param({"2", "3", "5", "8"})
+    public int dimension;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private FlatPointSet points;
+    private MultiDimClosestPair closestPair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        double[] coords = new double[size * dimension];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = random.nextDouble() * 1_000_000;
+        }
+        points = new FlatPointSet(coords, dimension);
+        closestPair = new MultiDimClosestPair(Metrics.noOp());
+    }
+
+    @Benchmark
+    public int[] grid() {
+        return closestPair.findClosestPairIndices(points);
+    }
+
+    /**
+     * All-pairs reference, skipped above BRUTE_FORCE_LIMIT points
+     */
+    @Benchmark
+    public double bruteForce() {
+        if (size > BRUTE_FORCE_LIMIT) return 0;
+        double[] coords = points.coords();
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            int a = i * dimension;
+            for (int j = i + 1; j < size; j++) {
+                int b = j * dimension;
+                double sum = 0;
+                for (int axis = 0; axis < dimension; axis++) {
+                    double d = coords[a + axis] - coords[b + axis];
+                    sum += d * d;
+                }
+                best = Math.min(best, sum);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,72 @@
+package benchmark;
+
+import algorithms.DeterministicSelect;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many ranks of one array: multiSelect vs one select per rank vs a full sort
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiSelectBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"1", "5", "10", "100", "1000"})
+    public int rankCount;
+
+    private int[] source;
+    private int[] work;
+    private int[] ranks;
+    private DeterministicSelect select;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, Inputs.Shape.RANDOM);
+        work = new int[size];
+        // Evenly spread ranks, like a set of percentiles
+        ranks = new int[rankCount];
+        for (int i = 0; i < rankCount; i++) {
+            ranks[i] = (int) ((long) (size - 1) * (i + 1) / (rankCount + 1));
+        }
+        select = new DeterministicSelect(Metrics.noOp());
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public int[] multiSelect() {
+        return select.multiSelect(work, ranks);
+    }
+
+    @Benchmark
+    public int[] repeatedSelect() {
+        int[] result = new int[rankCount];
+        for (int i = 0; i < rankCount; i++) {
+            result[i] = select.select(work, ranks[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] fullSort() {
+        Arrays.sort(work);
+        int[] result = new int[rankCount];
+        for (int i = 0; i < rankCount; i++) {
+            result[i] = work[ranks[i]];
+        }
+        return result;
+    }
+}
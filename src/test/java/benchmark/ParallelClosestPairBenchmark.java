@@ -0,0 +1,60 @@
+package benchmark;
+
+import algorithms.ClosestPair;
+import algorithms.ParallelClosestPair;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+import util.PointSet;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential vs fork/join closest pair across pool sizes; speedup is
+ * parallelClosestPair(threads=1) / parallelClosestPair(threads=N)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelClosestPairBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    public Inputs.PointShape shape;
+
+    private PointSet points;
+    private ForkJoinPool pool;
+    private ClosestPair closestPair;
+    private ParallelClosestPair parallelClosestPair;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        points = PointSet.of(Inputs.points(size, shape));
+        pool = new ForkJoinPool(threads);
+        closestPair = new ClosestPair(Metrics.noOp());
+        parallelClosestPair = new ParallelClosestPair(Metrics.noOp(), pool, ParallelClosestPair.DEFAULT_THRESHOLD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] closestPair() {
+        return closestPair.findClosestPairIndices(points);
+    }
+
+    @Benchmark
+    public int[] parallelClosestPair() {
+        return parallelClosestPair.findClosestPairIndices(points);
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import algorithms.DeterministicSelect;
+import algorithms.ParallelSelect;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential introselect vs parallel sample-and-compact select across pool sizes,
+ * at the median and at an extreme rank. The sequential select reorders its
+ * input, so it gets a fresh copy per call outside the timed region; the
+ * parallel one leaves its input untouched.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class ParallelSelectBenchmark {
+
+    @Param({"10000000", "100000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"MEDIAN", "MIN"})
+    public String rank;
+
+    private int[] source;
+    private int[] work;
+    private int k;
+    private ForkJoinPool pool;
+    private DeterministicSelect select;
+    private ParallelSelect parallelSelect;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, Inputs.Shape.RANDOM);
+        work = new int[size];
+        k = rank.equals("MIN") ? 0 : size / 2;
+        pool = new ForkJoinPool(threads);
+        select = new DeterministicSelect(Metrics.noOp());
+        parallelSelect = new ParallelSelect(Metrics.noOp(), pool, ParallelSelect.DEFAULT_GRANULARITY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public int select() {
+        return select.select(work, k);
+    }
+
+    @Benchmark
+    public int parallelSelect() {
+        return parallelSelect.select(source, k);
+    }
+}
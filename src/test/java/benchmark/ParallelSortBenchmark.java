@@ -0,0 +1,90 @@
+package benchmark;
+
+import algorithms.MergeSort;
+import algorithms.ParallelMergeSort;
+import algorithms.ParallelQuickSort;
+import algorithms.QuickSort;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential vs fork/join sorting across pool sizes, to measure parallel speedup
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    @Param({"RANDOM"})
+    public Inputs.Shape shape;
+
+    private int[] source;
+    private int[] work;
+    private ForkJoinPool pool;
+    private MergeSort mergeSort;
+    private ParallelMergeSort parallelMergeSort;
+    private QuickSort quickSort;
+    private ParallelQuickSort parallelQuickSort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, shape);
+        work = new int[size];
+        pool = new ForkJoinPool(threads);
+        Metrics metrics = Metrics.noOp();
+        mergeSort = new MergeSort(metrics);
+        parallelMergeSort = new ParallelMergeSort(metrics, pool, ParallelMergeSort.DEFAULT_GRANULARITY);
+        quickSort = new QuickSort(metrics);
+        parallelQuickSort = new ParallelQuickSort(metrics, pool, ParallelQuickSort.DEFAULT_GRANULARITY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private int[] fresh() {
+        System.arraycopy(source, 0, work, 0, size);
+        return work;
+    }
+
+    @Benchmark
+    public int[] mergeSort() {
+        int[] array = fresh();
+        mergeSort.sort(array);
+        return array;
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        int[] array = fresh();
+        parallelMergeSort.sort(array);
+        return array;
+    }
+
+    @Benchmark
+    public int[] quickSort() {
+        int[] array = fresh();
+        quickSort.sort(array);
+        return array;
+    }
+
+    @Benchmark
+    public int[] parallelQuickSort() {
+        int[] array = fresh();
+        parallelQuickSort.sort(array);
+        return array;
+    }
+}
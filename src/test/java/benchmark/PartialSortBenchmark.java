@@ -0,0 +1,91 @@
+package benchmark;
+
+import algorithms.PartialSort;
+import algorithms.QuickSort;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smallest k in sorted order: heap and select strategies of partialSort and topK
+ * against a full QuickSort, to place {@link PartialSort#HEAP_RATIO}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PartialSortBenchmark {
+
+    @Param({"10000000"})
+    public int size;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int k;
+
+    @Param({"RANDOM", "REVERSED"})
+    public Inputs.Shape shape;
+
+    private int[] source;
+    private int[] work;
+    private int[] out;
+    private QuickSort quickSort;
+    private PartialSort heap;
+    private PartialSort select;
+    private PartialSort auto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, shape);
+        work = new int[size];
+        out = new int[k];
+        Metrics metrics = Metrics.noOp();
+        quickSort = new QuickSort(metrics);
+        heap = new PartialSort(metrics, PartialSort.Strategy.HEAP);
+        select = new PartialSort(metrics, PartialSort.Strategy.SELECT);
+        auto = new PartialSort(metrics);
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public int[] fullSort() {
+        quickSort.sort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] partialSortHeap() {
+        heap.partialSort(work, k);
+        return work;
+    }
+
+    @Benchmark
+    public int[] partialSortSelect() {
+        select.partialSort(work, k);
+        return work;
+    }
+
+    @Benchmark
+    public int[] topKHeap() {
+        heap.topK(source, k, out);
+        return out;
+    }
+
+    @Benchmark
+    public int[] topKSelect() {
+        select.topK(source, k, out);
+        return out;
+    }
+
+    @Benchmark
+    public int[] topKAuto() {
+        auto.topK(source, k, out);
+        return out;
+    }
+}
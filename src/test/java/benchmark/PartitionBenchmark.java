@@ -0,0 +1,66 @@
+package benchmark;
+
+import algorithms.DeterministicSelect;
+import algorithms.QuickSort;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+import util.PartitionUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuickSort under each partition scheme on random, sorted and few-unique inputs.
+ * LOMUTO degrades towards quadratic on FEW_UNIQUE, so expect long iterations there.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PartitionBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "FEW_UNIQUE"})
+    public Inputs.Shape shape;
+
+    @Param({"LOMUTO", "THREE_WAY", "DUAL_PIVOT"})
+    public PartitionUtils.Scheme scheme;
+
+    private int[] source;
+    private int[] work;
+    private QuickSort quickSort;
+    private DeterministicSelect select;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, shape);
+        work = new int[size];
+        Metrics metrics = Metrics.noOp();
+        quickSort = new QuickSort(metrics, scheme);
+        select = new DeterministicSelect(metrics);
+    }
+
+    private int[] fresh() {
+        System.arraycopy(source, 0, work, 0, size);
+        return work;
+    }
+
+    @Benchmark
+    public int[] quickSort() {
+        int[] array = fresh();
+        quickSort.sort(array);
+        return array;
+    }
+
+    /**
+     * Select always partitions three-way; measured once per scheme value as a reference
+     */
+    @Benchmark
+    public int selectMedian() {
+        int[] array = fresh();
+        return select.select(array, size / 2);
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import algorithms.ConcurrentQuantileSketch;
+import algorithms.QuantileSketch;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sketch update cost, single-threaded and from four threads sharing one
+ * concurrent sketch, and the cost of a p99 query
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuantileSketchBenchmark {
+
+    @State(Scope.Thread)
+    public static class Local {
+        public QuantileSketch sketch;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            sketch = new QuantileSketch(Metrics.noOp());
+            for (int i = 0; i < 1_000_000; i++) {
+                sketch.update(ThreadLocalRandom.current().nextInt());
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        public ConcurrentQuantileSketch sketch;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            sketch = new ConcurrentQuantileSketch(Metrics.noOp());
+        }
+    }
+
+    @Benchmark
+    public void update(Local local) {
+        local.sketch.update(ThreadLocalRandom.current().nextInt());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void concurrentUpdate(Shared shared) {
+        shared.sketch.update(ThreadLocalRandom.current().nextInt());
+    }
+
+    @Benchmark
+    public int p99(Local local) {
+        return local.sketch.quantile(0.99);
+    }
+}
@@ -0,0 +1,50 @@
+package benchmark;
+
+import algorithms.DeterministicSelect;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Median selection per strategy; run with -prof gc to confirm
+ * gc.alloc.rate.norm stays at zero bytes per call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectBenchmark {
+
+    @Param({"100000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "FEW_UNIQUE", "ORGAN_PIPE"})
+    public Inputs.Shape shape;
+
+    @Param({"INTROSELECT", "FLOYD_RIVEST", "MEDIAN_OF_MEDIANS"})
+    public DeterministicSelect.Strategy strategy;
+
+    private int[] source;
+    private int[] work;
+    private DeterministicSelect select;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = Inputs.ints(size, shape);
+        work = new int[size];
+        select = new DeterministicSelect(Metrics.noOp(), strategy);
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public int selectMedian() {
+        return select.select(work, size / 2);
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import algorithms.Sorter;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link Sorter} engine across sizes and shapes, to place
+ * {@link Sorter#INSERTION_THRESHOLD}, {@link Sorter#RADIX_BASE_KEYS} and
+ * {@link Sorter#RADIX_KEYS_PER_PASS} and check that AUTO tracks the fastest
+ * engine. Each operation sorts max(1, {@link #BATCH_KEYS} / size) fresh copies
+ * of the input, so small sizes are not swamped by per-invocation timing and
+ * every size up to BATCH_KEYS scores the time to sort BATCH_KEYS keys.
+ * Insertion sort only runs in {@link Small}, where it finishes.
+ */
+public class SorterBenchmark {
+    static final int BATCH_KEYS = 1 << 16;
+
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+    @State(Scope.Thread)
+    public abstract static class Base {
+        private int[] source;
+        private int[] work;
+        private int copies;
+        private Sorter sorter;
+
+        abstract int size();
+
+        abstract Inputs.Shape shape();
+
+        abstract Sorter.Engine engine();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            source = Inputs.ints(size(), shape());
+            work = new int[size()];
+            copies = Math.max(1, BATCH_KEYS / size());
+            sorter = new Sorter(Metrics.noOp(), engine());
+        }
+
+        @Benchmark
+        public int[] sort() {
+            for (int c = 0; c < copies; c++) {
+                System.arraycopy(source, 0, work, 0, work.length);
+                sorter.sort(work);
+            }
+            return work;
+        }
+    }
+
+    public static class Small extends Base {
+        @Param({"8", "16", "32", "64", "128", "512"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSED"})
+        public Inputs.Shape shape;
+
+        @Param({"INSERTION", "QUICK", "MERGE", "RADIX", "AUTO"})
+        public Sorter.Engine engine;
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Inputs.Shape shape() {
+            return shape;
+        }
+
+        @Override
+        Sorter.Engine engine() {
+            return engine;
+        }
+    }
+
+    public static class Large extends Base {
+        @Param({"256", "512", "768", "1024", "2048", "65536", "1048576", "16777216"})
+        public int size;
+
+        @Param({"RANDOM", "FEW_UNIQUE", "SORTED", "NEARLY_SORTED", "REVERSED"})
+        public Inputs.Shape shape;
+
+        @Param({"QUICK", "MERGE", "RADIX", "AUTO"})
+        public Sorter.Engine engine;
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Inputs.Shape shape() {
+            return shape;
+        }
+
+        @Override
+        Sorter.Engine engine() {
+            return engine;
+        }
+    }
+}
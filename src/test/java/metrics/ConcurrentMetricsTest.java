@@ -0,0 +1,143 @@
+package metrics;
+
+import algorithms.MergeSort;
+import algorithms.ParallelClosestPair;
+import algorithms.ParallelMergeSort;
+import algorithms.ParallelQuickSort;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import util.Point;
+
+class ConcurrentMetricsTest {
+
+    @Test
+    void testSharedAcrossThreadsLosesNoUpdates() throws Exception {
+        int[] input = new Random(3).ints(20_000).toArray();
+
+        // MergeSort is deterministic, so one counted run gives the per-sort totals
+        Metrics single = new CountingMetrics();
+        new MergeSort(single).sort(input.clone());
+
+        ConcurrentMetrics shared = new ConcurrentMetrics();
+        int sorts = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < sorts; i++) {
+                futures.add(executor.submit(() -> new MergeSort(shared).sort(input.clone())));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(single.getComparisons() * sorts, shared.getComparisons());
+        assertEquals(single.getAllocations() * sorts, shared.getAllocations());
+    }
+
+    @Test
+    void testDepthIsTrackedPerThread() throws Exception {
+        ConcurrentMetrics metrics = new ConcurrentMetrics();
+        metrics.recordDepth();
+        metrics.recordDepth();
+
+        Thread other = new Thread(() -> {
+            metrics.recordDepth();
+            metrics.recordDepth();
+            metrics.recordDepth();
+            metrics.exitDepth();
+        });
+        other.start();
+        other.join();
+
+        // The other thread's depth neither adds to nor resets this thread's
+        assertEquals(2, metrics.getCurrentDepth());
+        assertEquals(3, metrics.getMaxDepth());
+    }
+
+    @Test
+    void testStolenTasksDoNotStackOnTheJoinersDepth() throws Exception {
+        int n = 1 << 16;
+        int[] input = new Random(5).ints(n).toArray();
+        Point[] points = new Point[n];
+        Random random = new Random(6);
+        for (int i = 0; i < n; i++) {
+            points[i] = new Point(random.nextDouble(), random.nextDouble());
+        }
+
+        ConcurrentMetrics merge = new ConcurrentMetrics();
+        ConcurrentMetrics quick = new ConcurrentMetrics();
+        ConcurrentMetrics closest = new ConcurrentMetrics();
+        // Fine granularity gives the stalled worker plenty of tasks to steal
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            underStalledWorker(pool, merge, () -> new ParallelMergeSort(merge, pool, 16).sort(input.clone()));
+            underStalledWorker(pool, quick, () -> new ParallelQuickSort(quick, pool, 16).sort(input.clone()));
+            underStalledWorker(pool, closest, () -> new ParallelClosestPair(closest, pool, 16).findClosestPair(points));
+        } finally {
+            pool.shutdown();
+        }
+
+        // 2^16 halves down to 16-element leaves in 12 levels, then the sequential leaf
+        assertTrue(merge.getMaxDepth() <= 14, "MergeSort depth " + merge.getMaxDepth());
+        assertTrue(closest.getMaxDepth() <= 17, "ClosestPair depth " + closest.getMaxDepth());
+        // Random pivots: within a small factor of log2(n)
+        assertTrue(quick.getMaxDepth() <= 48, "QuickSort depth " + quick.getMaxDepth());
+    }
+
+    /**
+     * Runs algorithm while one worker of pool sits at depth 100, as if joining
+     * deep inside another task, and keeps running whatever tasks it can steal
+     */
+    private static void underStalledWorker(ForkJoinPool pool, ConcurrentMetrics metrics, Runnable algorithm)
+            throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        Future<?> worker = pool.submit(() -> {
+            metrics.resumeDepth(100);
+            stalled.countDown();
+            while (!done.get()) {
+                ForkJoinTask.helpQuiesce();
+                Thread.yield();
+            }
+            metrics.resumeDepth(0);
+        });
+        stalled.await();
+        try {
+            algorithm.run();
+        } finally {
+            done.set(true);
+        }
+        worker.get();
+    }
+
+    @Test
+    void testSnapshotAndReset() {
+        ConcurrentMetrics metrics = new ConcurrentMetrics();
+        metrics.recordComparison();
+        metrics.recordComparison();
+        metrics.recordAllocation(10);
+        metrics.recordDepth();
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        metrics.reset();
+
+        assertEquals(2, snapshot.getComparisons());
+        assertEquals(10, snapshot.getAllocations());
+        assertEquals(1, snapshot.getMaxDepth());
+        assertEquals(0, metrics.getComparisons());
+        assertEquals(0, metrics.getMaxDepth());
+    }
+}
@@ -0,0 +1,52 @@
+package metrics;
+
+import algorithms.DeterministicSelect;
+import algorithms.MergeSort;
+import algorithms.QuickSort;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+class NoOpMetricsTest {
+    /**
+     * Slack for the allocation counter itself; a depth tracker per level would be megabytes
+     */
+    private static final long SLACK_BYTES = 16 * 1024;
+
+    @Test
+    void testInstrumentedRecursionAllocatesNothingUnderNoOp() {
+        int n = 1 << 20;
+        int[] input = new Random(4).ints(n).toArray();
+        QuickSort quickSort = new QuickSort(Metrics.noOp());
+        MergeSort mergeSort = new MergeSort(Metrics.noOp());
+        DeterministicSelect select = new DeterministicSelect(Metrics.noOp());
+        int[] array = new int[n];
+
+        // Warm up class loading and the random pivot source
+        System.arraycopy(input, 0, array, 0, n);
+        quickSort.sort(array);
+
+        System.arraycopy(input, 0, array, 0, n);
+        long quick = allocatedBytes(() -> quickSort.sort(array));
+        System.arraycopy(input, 0, array, 0, n);
+        long merge = allocatedBytes(() -> mergeSort.sort(array));
+        System.arraycopy(input, 0, array, 0, n);
+        long selected = allocatedBytes(() -> select.select(array, n / 2));
+
+        assertTrue(quick < SLACK_BYTES, "QuickSort allocated " + quick + " bytes");
+        // Only the merge buffer
+        long buffer = 16L + (long) n * Integer.BYTES;
+        assertTrue(merge < buffer + SLACK_BYTES, "MergeSort allocated " + merge + " bytes");
+        assertTrue(selected < SLACK_BYTES, "Select allocated " + selected + " bytes");
+    }
+
+    private static long allocatedBytes(Runnable task) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        task.run();
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+}
@@ -0,0 +1,95 @@
+package metrics;
+
+import algorithms.ClosestPair;
+import algorithms.DeterministicSelect;
+import algorithms.MergeSort;
+import org.junit.jupiter.api.Test;
+import util.Point;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+class ProfilingMetricsTest {
+
+    @Test
+    void testMergeSortLevels() {
+        ProfilingMetrics profile = new ProfilingMetrics();
+        int n = 1 << 12;
+        new MergeSort(profile).sort(new Random(1).ints(n).toArray());
+
+        // Every level above the insertion-sort leaves covers the whole array
+        assertEquals(0, profile.getCurrentDepth(), "Every level entered must be exited");
+        assertEquals(1, profile.getSubproblems(0));
+        assertEquals(n, profile.getTotalSize(0));
+        for (int level = 0; level < profile.getLevelCount(); level++) {
+            assertEquals(1L << level, profile.getSubproblems(level));
+            assertEquals(n, profile.getTotalSize(level));
+        }
+        // 4096 halves down to 16-element leaves: 9 levels
+        assertEquals(9, profile.getMaxDepth());
+
+        long perLevel = 0;
+        for (int level = 0; level < profile.getLevelCount(); level++) {
+            perLevel += profile.getComparisons(level);
+        }
+        assertEquals(profile.getComparisons(), perLevel);
+    }
+
+    @Test
+    void testDepthIsRecursionDepthNotCallCount() {
+        ProfilingMetrics profile = new ProfilingMetrics();
+        Point[] points = new Point[1000];
+        Random random = new Random(2);
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(random.nextDouble(), random.nextDouble());
+        }
+
+        new ClosestPair(profile).findClosestPair(points);
+
+        assertEquals(0, profile.getCurrentDepth());
+        assertTrue(profile.getMaxDepth() <= 12, "Depth " + profile.getMaxDepth() + " should be ~log2(n)");
+    }
+
+    @Test
+    void testClosestPairProfileHasLevelsAboveGridThreshold() {
+        ProfilingMetrics profile = new ProfilingMetrics();
+        // The size BenchmarkRunner profiles, where AUTO would pick the grid
+        Point[] points = new Point[10000];
+        Random random = new Random(4);
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(random.nextDouble() * 1000, random.nextDouble() * 1000);
+        }
+
+        assertTrue(points.length >= ClosestPair.GRID_THRESHOLD);
+        new ClosestPair(profile, ClosestPair.Engine.DIVIDE_AND_CONQUER).findClosestPair(points);
+
+        assertTrue(profile.getLevelCount() > 1, "Levels " + profile.getLevelCount());
+        assertEquals(1, profile.getSubproblems(0));
+        assertEquals(points.length, profile.getTotalSize(0));
+        assertEquals(2, profile.getSubproblems(1));
+    }
+
+    @Test
+    void testCsvExport() throws IOException {
+        ProfilingMetrics profile = new ProfilingMetrics();
+        new DeterministicSelect(profile).select(new Random(3).ints(5000).toArray(), 2500);
+
+        Path file = Files.createTempFile("profile", ".csv");
+        try {
+            try (CSVWriter csv = new CSVWriter(file.toString())) {
+                csv.writeHeader(ProfilingMetrics.CSV_COLUMNS);
+                profile.writeRows(csv, "Select");
+            }
+            List<String> lines = Files.readAllLines(file);
+
+            assertEquals(String.join(",", ProfilingMetrics.CSV_COLUMNS), lines.get(0));
+            assertEquals(profile.getLevelCount() + 1, lines.size());
+            assertTrue(lines.get(1).startsWith("Select,0,1,5000,"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package metrics;
+
+import algorithms.ClosestPair;
+import algorithms.MergeSort;
+import org.junit.jupiter.api.Test;
+import util.Point;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+class SamplingMetricsTest {
+
+    @Test
+    void testBulkReportsEstimateTheExactCount() {
+        int[] input = new Random(8).ints(1 << 20).toArray();
+        MergeSort.Strategy[] bulk = {MergeSort.Strategy.TOP_DOWN, MergeSort.Strategy.BOTTOM_UP};
+        for (MergeSort.Strategy strategy : bulk) {
+            CountingMetrics exact = new CountingMetrics();
+            new MergeSort(exact, strategy).sort(input.clone());
+            SamplingMetrics sampled = new SamplingMetrics();
+            new MergeSort(sampled, strategy).sort(input.clone());
+
+            // Standard deviation is about 0.45% at this size
+            double error = Math.abs(sampled.getComparisons() - exact.getComparisons()) / (double) exact.getComparisons();
+            assertTrue(error < 0.02, strategy + " estimate off by " + error);
+            assertEquals(exact.getAllocations(), sampled.getAllocations());
+            assertEquals(exact.getMaxDepth(), sampled.getMaxDepth());
+        }
+    }
+
+    @Test
+    void testSingleComparisonsAreCountedExactly() {
+        // Divide-and-conquer closest pair reports every comparison on its own
+        Point[] points = new Point[20_000];
+        Random random = new Random(9);
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(random.nextDouble(), random.nextDouble());
+        }
+        CountingMetrics exact = new CountingMetrics();
+        new ClosestPair(exact, ClosestPair.Engine.DIVIDE_AND_CONQUER).findClosestPair(points);
+        SamplingMetrics sampled = new SamplingMetrics();
+        new ClosestPair(sampled, ClosestPair.Engine.DIVIDE_AND_CONQUER).findClosestPair(points);
+
+        assertEquals(exact.getComparisons(), sampled.getComparisons());
+    }
+
+    @Test
+    void testInvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new SamplingMetrics(0));
+    }
+}